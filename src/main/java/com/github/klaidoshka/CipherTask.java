@@ -5,11 +5,21 @@ import static com.github.klaidoshka.util.CipherUtil.printBouncyCastleCapabilitie
 import static com.github.klaidoshka.util.CipherUtil.testUnrestrictedPolicy;
 
 import com.github.klaidoshka.solution.AsymmetricSolution;
+import com.github.klaidoshka.solution.DifferentialFuzzSolution;
+import com.github.klaidoshka.solution.DigestIndexSolution;
 import com.github.klaidoshka.solution.HashMessageAuthCodeSolution;
 import com.github.klaidoshka.solution.HashSolution;
+import com.github.klaidoshka.solution.HybridEncryptionSolution;
+import com.github.klaidoshka.solution.KeyPairPoolSolution;
+import com.github.klaidoshka.solution.KeySearchSolution;
+import com.github.klaidoshka.solution.KeyStoreSolution;
+import com.github.klaidoshka.solution.PaddingOracleSolution;
+import com.github.klaidoshka.solution.RandomServiceSolution;
+import com.github.klaidoshka.solution.SignatureSolution;
 import com.github.klaidoshka.solution.Solution;
 import com.github.klaidoshka.solution.SymmetricBlockDecryptSolution;
 import com.github.klaidoshka.solution.SymmetricBlockEncryptSolution;
+import com.github.klaidoshka.solution.TimingLeakSolution;
 import java.util.Objects;
 import java.util.logging.Logger;
 
@@ -65,7 +75,17 @@ public final class CipherTask {
         new SymmetricBlockDecryptSolution(),
         new HashSolution(),
         new HashMessageAuthCodeSolution(),
-        new AsymmetricSolution()
+        new AsymmetricSolution(),
+        new DigestIndexSolution(),
+        new KeyStoreSolution(),
+        new RandomServiceSolution(),
+        new KeyPairPoolSolution(),
+        new HybridEncryptionSolution(),
+        new SignatureSolution(),
+        new KeySearchSolution(),
+        new TimingLeakSolution(),
+        new PaddingOracleSolution(),
+        new DifferentialFuzzSolution()
     }) {
       try {
         logger.info(
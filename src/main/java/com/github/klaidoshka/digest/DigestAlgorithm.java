@@ -0,0 +1,128 @@
+package com.github.klaidoshka.digest;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Digest algorithms a {@link DigestIndex} can store records of.
+ *
+ * <p>
+ * Every algorithm has an explicit id which is persisted in the index records, so ids must never be
+ * reused or renumbered; new algorithms get the next free id.
+ * </p>
+ */
+public enum DigestAlgorithm {
+
+  /**
+   * MD5.
+   */
+  MD5("MD5", 1),
+
+  /**
+   * SHA-1.
+   */
+  SHA_1("SHA-1", 2),
+
+  /**
+   * SHA-224.
+   */
+  SHA_224("SHA-224", 3),
+
+  /**
+   * SHA-256.
+   */
+  SHA_256("SHA-256", 4),
+
+  /**
+   * SHA-384.
+   */
+  SHA_384("SHA-384", 5),
+
+  /**
+   * SHA-512.
+   */
+  SHA_512("SHA-512", 6),
+
+  /**
+   * SHA3-256.
+   */
+  SHA3_256("SHA3-256", 7),
+
+  /**
+   * SHA3-512.
+   */
+  SHA3_512("SHA3-512", 8),
+
+  /**
+   * Tiger.
+   */
+  TIGER("Tiger", 9),
+
+  /**
+   * RIPEMD-160.
+   */
+  RIPEMD160("RipeMD160", 10),
+
+  /**
+   * Whirlpool.
+   */
+  WHIRLPOOL("Whirlpool", 11);
+
+  /**
+   * Name of the algorithm passed to {@code getInstance}.
+   */
+  private final String algorithm;
+
+  /**
+   * Id of the algorithm stored in the index records.
+   */
+  private final int id;
+
+  /**
+   * Create an algorithm.
+   *
+   * @param algorithm the name of the algorithm
+   * @param id        the persisted id
+   */
+  DigestAlgorithm(String algorithm, int id) {
+    this.algorithm = algorithm;
+    this.id = id;
+  }
+
+  /**
+   * Find a supported algorithm by name, ignoring case.
+   *
+   * @param algorithm the name of the algorithm, e.g. "Tiger"
+   * @return the algorithm
+   * @throws NoSuchAlgorithmException if the algorithm is not supported by the index
+   */
+  public static DigestAlgorithm of(String algorithm) throws NoSuchAlgorithmException {
+    var name = algorithm.toUpperCase(Locale.ROOT);
+
+    for (var value : values()) {
+      if (value.algorithm.toUpperCase(Locale.ROOT).equals(name)) {
+        return value;
+      }
+    }
+
+    throw new NoSuchAlgorithmException("Digest index does not support " + algorithm);
+  }
+
+  /**
+   * Get the name of the algorithm passed to {@code getInstance}.
+   *
+   * @return the name
+   */
+  public String algorithm() {
+    return algorithm;
+  }
+
+  /**
+   * Get the id of the algorithm stored in the index records.
+   *
+   * @return the id
+   */
+  public int id() {
+    return id;
+  }
+}
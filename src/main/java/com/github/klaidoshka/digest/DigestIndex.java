@@ -0,0 +1,575 @@
+package com.github.klaidoshka.digest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Persistent content-digest index backed by a memory-mapped file of fixed-size records.
+ *
+ * <li>
+ * Each record maps a 64-bit path hash to the file size, modification time, algorithm and digest.
+ * </li>
+ * <li>
+ * Records are located with open addressing (linear probing), so lookups never allocate. Removed
+ * records are backfilled by shifting the rest of their probe sequence, so no tombstones are left.
+ * </li>
+ * <li>
+ * The table doubles into a new file once the load factor is exceeded, keeping the heap usage
+ * independent of the number of indexed files.
+ * </li>
+ */
+public final class DigestIndex implements Closeable {
+
+  /**
+   * Magic number identifying the index file ("DIDX").
+   */
+  private static final int MAGIC = 0x44494458;
+
+  /**
+   * Version of the file layout.
+   */
+  private static final int VERSION = 1;
+
+  /**
+   * Size of the file header in bytes.
+   */
+  private static final int HEADER_SIZE = 64;
+
+  /**
+   * Size of a single record in bytes.
+   */
+  private static final int RECORD_SIZE = 96;
+
+  /**
+   * Maximum digest length a record can hold.
+   */
+  public static final int MAX_DIGEST_LENGTH = 64;
+
+  /**
+   * Maximum number of slots a single mapping can address.
+   */
+  private static final int MAX_CAPACITY = Integer.highestOneBit(
+      (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE
+  );
+
+  /**
+   * Header offsets.
+   */
+  private static final int HEADER_MAGIC = 0;
+  private static final int HEADER_VERSION = 4;
+  private static final int HEADER_CAPACITY = 8;
+  private static final int HEADER_COUNT = 12;
+
+  /**
+   * Record field offsets.
+   */
+  private static final int RECORD_PATH_HASH = 0;
+  private static final int RECORD_SIZE_FIELD = 8;
+  private static final int RECORD_MODIFIED = 16;
+  private static final int RECORD_ALGORITHM = 24;
+  private static final int RECORD_DIGEST_LENGTH = 28;
+  private static final int RECORD_DIGEST = 32;
+
+  /**
+   * Lock guarding the mapping; lookups share it, insertions and growth take it exclusively.
+   */
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * Location of the index file.
+   */
+  private final Path file;
+
+  /**
+   * Channel of the currently mapped index file.
+   */
+  private FileChannel channel;
+
+  /**
+   * Mapping of the whole index file.
+   */
+  private MappedByteBuffer buffer;
+
+  /**
+   * Number of slots in the table, always a power of two.
+   */
+  private int capacity;
+
+  /**
+   * Number of occupied slots.
+   */
+  private int count;
+
+  /**
+   * Create an index over an already mapped file.
+   *
+   * @param file     the index file
+   * @param channel  the channel of the index file
+   * @param buffer   the mapping of the whole index file
+   * @param capacity the number of slots
+   * @param count    the number of occupied slots
+   */
+  private DigestIndex(Path file, FileChannel channel, MappedByteBuffer buffer, int capacity,
+      int count) {
+    this.file = file;
+    this.channel = channel;
+    this.buffer = buffer;
+    this.capacity = capacity;
+    this.count = count;
+  }
+
+  /**
+   * Open an existing index file or create a new one.
+   *
+   * @param file            the index file
+   * @param initialCapacity the slot count to use if the file has to be created
+   * @return the opened index
+   * @throws IOException if the file cannot be opened, mapped or is not a valid index
+   */
+  public static DigestIndex open(Path file, int initialCapacity) throws IOException {
+    if (Files.exists(file) && Files.size(file) > 0) {
+      var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+      try {
+        var header = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE);
+
+        if (header.getInt(HEADER_MAGIC) != MAGIC || header.getInt(HEADER_VERSION) != VERSION) {
+          throw new IOException("Not a digest index: " + file);
+        }
+
+        var capacity = header.getInt(HEADER_CAPACITY);
+        var count = header.getInt(HEADER_COUNT);
+
+        if (Integer.bitCount(capacity) != 1 || channel.size() != mappingSize(capacity)) {
+          throw new IOException("Corrupted digest index: " + file);
+        }
+
+        return new DigestIndex(
+            file,
+            channel,
+            channel.map(MapMode.READ_WRITE, 0, mappingSize(capacity)),
+            capacity,
+            count
+        );
+      } catch (IOException | RuntimeException e) {
+        channel.close();
+
+        throw e;
+      }
+    }
+
+    var capacity = slotsFor(initialCapacity);
+    var channel = create(file, capacity);
+
+    return new DigestIndex(
+        file,
+        channel,
+        channel.map(MapMode.READ_WRITE, 0, mappingSize(capacity)),
+        capacity,
+        0
+    );
+  }
+
+  /**
+   * Check whether the stored record of a path still describes the given file metadata.
+   *
+   * @param pathHash  the hash of the path
+   * @param size      the current size of the file
+   * @param modified  the current modification time of the file
+   * @param algorithm the id of the digest algorithm
+   * @return true if a record exists and its metadata is unchanged, false otherwise
+   */
+  public boolean matches(long pathHash, long size, long modified, int algorithm) {
+    lock.readLock().lock();
+
+    try {
+      var slot = find(pathHash);
+
+      if (slot < 0) {
+        return false;
+      }
+
+      var offset = offset(slot);
+
+      return buffer.getLong(offset + RECORD_SIZE_FIELD) == size
+          && buffer.getLong(offset + RECORD_MODIFIED) == modified
+          && buffer.getInt(offset + RECORD_ALGORITHM) == algorithm;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Copy the stored digest of a path into the given array.
+   *
+   * @param pathHash the hash of the path
+   * @param digest   the array to copy the digest into
+   * @return the length of the digest, or -1 if the path is not indexed
+   */
+  public int digest(long pathHash, byte[] digest) {
+    lock.readLock().lock();
+
+    try {
+      var slot = find(pathHash);
+
+      if (slot < 0) {
+        return -1;
+      }
+
+      var offset = offset(slot);
+      var length = buffer.getInt(offset + RECORD_DIGEST_LENGTH);
+
+      buffer.get(offset + RECORD_DIGEST, digest, 0, length);
+
+      return length;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Insert or replace the record of a path.
+   *
+   * @param pathHash  the hash of the path
+   * @param size      the size of the file
+   * @param modified  the modification time of the file
+   * @param algorithm the id of the digest algorithm
+   * @param digest    the digest of the file contents
+   * @param length    the length of the digest
+   * @throws IOException if the index has to grow and the new file cannot be created
+   */
+  public void put(long pathHash, long size, long modified, int algorithm, byte[] digest,
+      int length) throws IOException {
+    if (length > MAX_DIGEST_LENGTH) {
+      throw new IllegalArgumentException("Digest is longer than " + MAX_DIGEST_LENGTH + " bytes");
+    }
+
+    lock.writeLock().lock();
+
+    try {
+      if ((long) (count + 1) * 4 > (long) capacity * 3) {
+        grow();
+      }
+
+      var slot = probe(pathHash);
+      var offset = offset(slot);
+
+      if (buffer.getLong(offset + RECORD_PATH_HASH) == 0) {
+        buffer.putInt(HEADER_COUNT, ++count);
+      }
+
+      buffer.putLong(offset + RECORD_PATH_HASH, pathHash);
+      buffer.putLong(offset + RECORD_SIZE_FIELD, size);
+      buffer.putLong(offset + RECORD_MODIFIED, modified);
+      buffer.putInt(offset + RECORD_ALGORITHM, algorithm);
+      buffer.putInt(offset + RECORD_DIGEST_LENGTH, length);
+      buffer.put(offset + RECORD_DIGEST, digest, 0, length);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remove the records of all paths not in the given set, e.g. of files deleted since the last
+   * scan.
+   *
+   * @param pathHashes the hashes of the paths to keep, sorted in ascending order
+   * @return the number of removed records
+   */
+  public int retain(long[] pathHashes) {
+    lock.writeLock().lock();
+
+    try {
+      var removed = 0;
+      var slot = 0;
+      var record = new byte[RECORD_SIZE];
+
+      while (slot < capacity) {
+        var pathHash = buffer.getLong(offset(slot) + RECORD_PATH_HASH);
+
+        if (pathHash != 0 && Arrays.binarySearch(pathHashes, pathHash) < 0) {
+          // The slot is backfilled from later slots, so check it again
+          remove(slot, record);
+          removed++;
+        } else {
+          slot++;
+        }
+      }
+
+      count -= removed;
+      buffer.putInt(HEADER_COUNT, count);
+
+      return removed;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Get the number of indexed paths.
+   *
+   * @return the number of records
+   */
+  public int size() {
+    lock.readLock().lock();
+
+    try {
+      return count;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Flush the mapped records to the storage device.
+   */
+  public void force() {
+    lock.writeLock().lock();
+
+    try {
+      buffer.force();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.writeLock().lock();
+
+    try {
+      buffer.force();
+      channel.close();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Hash a path into the 64-bit key used by the index (FNV-1a followed by a finalizing mix).
+   *
+   * @param path the path, usually relative to the scanned root
+   * @return the non-zero hash of the path
+   */
+  public static long hash(String path) {
+    var hash = 0xCBF29CE484222325L;
+
+    for (var value : path.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= value & 0xff;
+      hash *= 0x100000001B3L;
+    }
+
+    hash = mix(hash);
+
+    // Zero marks an empty slot
+    return hash == 0 ? 1 : hash;
+  }
+
+  /**
+   * Find the slot of an existing record.
+   *
+   * @param pathHash the hash of the path
+   * @return the slot, or -1 if the path is not indexed
+   */
+  private int find(long pathHash) {
+    var slot = probe(pathHash);
+
+    return buffer.getLong(offset(slot) + RECORD_PATH_HASH) == pathHash ? slot : -1;
+  }
+
+  /**
+   * Find the slot holding the given path hash or the first empty slot of its probe sequence.
+   *
+   * @param pathHash the hash of the path
+   * @return the slot
+   */
+  private int probe(long pathHash) {
+    var mask = capacity - 1;
+    var slot = (int) mix(pathHash) & mask;
+
+    while (true) {
+      var stored = buffer.getLong(offset(slot) + RECORD_PATH_HASH);
+
+      if (stored == 0 || stored == pathHash) {
+        return slot;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  /**
+   * Empty a slot and move the following records of its probe sequence back, so that none of them
+   * becomes unreachable from its home slot.
+   *
+   * @param slot   the slot to empty
+   * @param record a scratch array of the record size
+   */
+  private void remove(int slot, byte[] record) {
+    var mask = capacity - 1;
+    var hole = slot;
+
+    for (var next = (hole + 1) & mask; ; next = (next + 1) & mask) {
+      var pathHash = buffer.getLong(offset(next) + RECORD_PATH_HASH);
+
+      if (pathHash == 0) {
+        break;
+      }
+
+      var home = (int) mix(pathHash) & mask;
+
+      // The record may move into the hole only if the hole lies between its home slot and itself
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        buffer.get(offset(next), record);
+        buffer.put(offset(hole), record);
+        hole = next;
+      }
+    }
+
+    Arrays.fill(record, (byte) 0);
+    buffer.put(offset(hole), record);
+  }
+
+  /**
+   * Double the table by rehashing all records into a new file which then replaces the current one.
+   *
+   * @throws IOException if the new file cannot be created or moved into place
+   */
+  private void grow() throws IOException {
+    if (capacity >= MAX_CAPACITY) {
+      throw new IllegalStateException("Digest index is full (" + count + " records)");
+    }
+
+    var temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    var oldBuffer = buffer;
+    var oldCapacity = capacity;
+    var newChannel = create(temporary, capacity << 1);
+
+    buffer = newChannel.map(MapMode.READ_WRITE, 0, mappingSize(capacity << 1));
+    capacity <<= 1;
+
+    var record = new byte[RECORD_SIZE];
+
+    for (var slot = 0; slot < oldCapacity; slot++) {
+      var pathHash = oldBuffer.getLong(offset(slot) + RECORD_PATH_HASH);
+
+      if (pathHash == 0) {
+        continue;
+      }
+
+      oldBuffer.get(offset(slot), record);
+      buffer.put(offset(probe(pathHash)), record);
+    }
+
+    buffer.putInt(HEADER_COUNT, count);
+    buffer.force();
+    channel.close();
+
+    Files.move(
+        temporary,
+        file,
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE
+    );
+
+    channel = newChannel;
+  }
+
+  /**
+   * Create an empty index file with the given number of slots.
+   *
+   * @param file     the file to create
+   * @param capacity the number of slots
+   * @return the channel of the created file
+   * @throws IOException if the file cannot be created
+   */
+  private static FileChannel create(Path file, int capacity) throws IOException {
+    var channel = FileChannel.open(
+        file,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.READ,
+        StandardOpenOption.WRITE
+    );
+
+    try {
+      // Mapping beyond the end of file extends it with zeroes, i.e. empty slots
+      var mapping = channel.map(MapMode.READ_WRITE, 0, mappingSize(capacity));
+
+      mapping.putInt(HEADER_MAGIC, MAGIC);
+      mapping.putInt(HEADER_VERSION, VERSION);
+      mapping.putInt(HEADER_CAPACITY, capacity);
+      mapping.putInt(HEADER_COUNT, 0);
+
+      return channel;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+
+      throw e;
+    }
+  }
+
+  /**
+   * Get the smallest power-of-two slot count keeping the given number of records under the load
+   * factor.
+   *
+   * @param records the expected number of records
+   * @return the slot count
+   */
+  private static int slotsFor(int records) {
+    var slots = Math.max(16L, (long) records * 4 / 3 + 1);
+
+    if (slots > MAX_CAPACITY) {
+      throw new IllegalArgumentException("Capacity exceeds " + MAX_CAPACITY + " slots");
+    }
+
+    return Integer.highestOneBit((int) slots - 1) << 1;
+  }
+
+  /**
+   * Get the size of the mapping for the given number of slots.
+   *
+   * @param capacity the number of slots
+   * @return the size of the file in bytes
+   */
+  private static long mappingSize(int capacity) {
+    return HEADER_SIZE + (long) capacity * RECORD_SIZE;
+  }
+
+  /**
+   * Get the byte offset of a slot within the mapping.
+   *
+   * @param slot the slot
+   * @return the offset of the record
+   */
+  private static int offset(int slot) {
+    return HEADER_SIZE + slot * RECORD_SIZE;
+  }
+
+  /**
+   * Spread the bits of a hash (finalizer of MurmurHash3).
+   *
+   * @param value the value to mix
+   * @return the mixed value
+   */
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xFF51AFD7ED558CCDL;
+    value ^= value >>> 33;
+    value *= 0xC4CEB3F5A5A1F4BBL;
+    value ^= value >>> 33;
+
+    return value;
+  }
+}
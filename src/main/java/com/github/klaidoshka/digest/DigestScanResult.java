@@ -0,0 +1,32 @@
+package com.github.klaidoshka.digest;
+
+import java.time.Duration;
+
+/**
+ * Statistics of a single directory tree scan.
+ *
+ * @param files     the number of regular files visited
+ * @param unchanged the number of files skipped because their metadata was unchanged
+ * @param hashed    the number of files whose contents were (re-)hashed
+ * @param removed   the number of records removed because their files no longer exist
+ * @param failed    the number of files or directories that could not be read
+ * @param elapsed   the wall time of the scan
+ */
+public record DigestScanResult(
+    long files,
+    long unchanged,
+    long hashed,
+    long removed,
+    long failed,
+    Duration elapsed
+) {
+
+  /**
+   * Get the number of visited files per second.
+   *
+   * @return the scan rate
+   */
+  public double filesPerSecond() {
+    return files / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+  }
+}
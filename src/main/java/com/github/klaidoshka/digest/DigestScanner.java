@@ -0,0 +1,351 @@
+package com.github.klaidoshka.digest;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Scanner hashing directory trees into a {@link DigestIndex}.
+ *
+ * <li>
+ * Directories are walked in parallel, one fork-join task per directory.
+ * </li>
+ * <li>
+ * Files whose size, modification time and algorithm match the index are not read at all.
+ * </li>
+ * <li>
+ * Digests and read buffers are kept per worker thread, so hashing does not allocate per file.
+ * </li>
+ * <li>
+ * Records of files no longer in the tree are removed after the scan, unless some directory could
+ * not be listed.
+ * </li>
+ */
+public final class DigestScanner {
+
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER = Logger.getLogger(DigestScanner.class.getName());
+
+  /**
+   * Size of the per-thread read buffer.
+   */
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Index to check and update.
+   */
+  private final DigestIndex index;
+
+  /**
+   * Id of the digest algorithm stored in the records.
+   */
+  private final int algorithmId;
+
+  /**
+   * Pool walking the directories.
+   */
+  private final ForkJoinPool pool;
+
+  /**
+   * Digest instance of each worker thread.
+   */
+  private final ThreadLocal<MessageDigest> digests;
+
+  /**
+   * Read buffer of each worker thread.
+   */
+  private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(
+      () -> ByteBuffer.allocateDirect(BUFFER_SIZE)
+  );
+
+  /**
+   * Digest output array of each worker thread.
+   */
+  private final ThreadLocal<byte[]> outputs = ThreadLocal.withInitial(
+      () -> new byte[DigestIndex.MAX_DIGEST_LENGTH]
+  );
+
+  /**
+   * Create a scanner.
+   *
+   * @param index       the index to check and update
+   * @param algorithm   the digest algorithm, e.g. "Tiger"
+   * @param parallelism the number of worker threads
+   * @throws GeneralSecurityException if the algorithm is not supported by the index, not available
+   *                                  or its digest does not fit into an index record
+   */
+  public DigestScanner(DigestIndex index, String algorithm, int parallelism)
+      throws GeneralSecurityException {
+    var supported = DigestAlgorithm.of(algorithm);
+    var length = MessageDigest.getInstance(supported.algorithm(), "BC").getDigestLength();
+
+    if (length > DigestIndex.MAX_DIGEST_LENGTH) {
+      throw new GeneralSecurityException(
+          "Digest of %s is longer than %d bytes".formatted(algorithm, DigestIndex.MAX_DIGEST_LENGTH)
+      );
+    }
+
+    this.index = index;
+    this.algorithmId = supported.id();
+    this.pool = new ForkJoinPool(parallelism);
+    this.digests = ThreadLocal.withInitial(() -> {
+      try {
+        return MessageDigest.getInstance(supported.algorithm(), "BC");
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("Could not create " + algorithm + " digest", e);
+      }
+    });
+  }
+
+  /**
+   * Scan a directory tree, re-hashing only the files whose metadata changed since the last scan and
+   * removing the records of files that no longer exist. Paths are indexed relative to the root, so
+   * a moved tree keeps its records.
+   *
+   * @param root the root directory of the tree
+   * @return the statistics of the scan
+   */
+  public DigestScanResult scan(Path root) {
+    var start = System.nanoTime();
+    var scan = new Scan(root);
+
+    pool.invoke(new DirectoryTask(scan, root));
+
+    var removed = 0;
+
+    if (scan.incomplete) {
+      LOGGER.warning("Not removing records, " + root + " could not be listed completely");
+    } else {
+      var seen = new long[scan.seen.stream().mapToInt(hashes -> hashes.length).sum()];
+      var length = 0;
+
+      for (var hashes : scan.seen) {
+        System.arraycopy(hashes, 0, seen, length, hashes.length);
+        length += hashes.length;
+      }
+
+      Arrays.sort(seen);
+
+      removed = index.retain(seen);
+    }
+
+    return new DigestScanResult(
+        scan.files.sum(),
+        scan.unchanged.sum(),
+        scan.hashed.sum(),
+        removed,
+        scan.failed.sum(),
+        Duration.ofNanos(System.nanoTime() - start)
+    );
+  }
+
+  /**
+   * Stop the worker threads of the scanner.
+   */
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  /**
+   * Check a single file against the index and hash it if needed.
+   *
+   * @param scan       the running scan
+   * @param file       the file
+   * @param pathHash   the hash of the path of the file relative to the root
+   * @param attributes the attributes of the file
+   */
+  private void visit(Scan scan, Path file, long pathHash, BasicFileAttributes attributes) {
+    var size = attributes.size();
+    var modified = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+
+    scan.files.increment();
+
+    if (index.matches(pathHash, size, modified, algorithmId)) {
+      scan.unchanged.increment();
+
+      return;
+    }
+
+    try {
+      var output = outputs.get();
+      var length = digest(file, output);
+
+      index.put(pathHash, size, modified, algorithmId, output, length);
+
+      scan.hashed.increment();
+    } catch (IOException | GeneralSecurityException | IllegalStateException e) {
+      // A full index fails the file, not the whole scan
+      LOGGER.warning("Could not hash " + file + ": " + e.getMessage());
+
+      scan.failed.increment();
+    }
+  }
+
+  /**
+   * Hash the contents of a file with the digest of the current thread.
+   *
+   * @param file   the file to hash
+   * @param output the array to write the digest into
+   * @return the length of the digest
+   * @throws IOException              if the file cannot be read
+   * @throws GeneralSecurityException if the digest cannot be completed
+   */
+  private int digest(Path file, byte[] output) throws IOException, GeneralSecurityException {
+    var digest = digests.get();
+    var buffer = buffers.get();
+
+    digest.reset();
+
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      while (channel.read(buffer.clear()) >= 0) {
+        digest.update(buffer.flip());
+      }
+    }
+
+    return digest.digest(output, 0, output.length);
+  }
+
+  /**
+   * Counters, root and visited paths of a running scan.
+   */
+  private static final class Scan {
+
+    /**
+     * Root directory of the tree.
+     */
+    private final Path root;
+
+    /**
+     * Counters of the scan.
+     */
+    private final LongAdder files = new LongAdder();
+    private final LongAdder unchanged = new LongAdder();
+    private final LongAdder hashed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Hashes of the paths of the visited files, one array per directory.
+     */
+    private final Queue<long[]> seen = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Whether some directory or entry could not be read, so the visited paths are incomplete.
+     */
+    private volatile boolean incomplete;
+
+    /**
+     * Create a scan.
+     *
+     * @param root the root directory of the tree
+     */
+    private Scan(Path root) {
+      this.root = root;
+    }
+  }
+
+  /**
+   * Task visiting the files of a single directory and forking a task per subdirectory.
+   */
+  private final class DirectoryTask extends RecursiveAction {
+
+    /**
+     * Version of the serialized form.
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Running scan.
+     */
+    private final transient Scan scan;
+
+    /**
+     * Directory to visit.
+     */
+    private final transient Path directory;
+
+    /**
+     * Create a task.
+     *
+     * @param scan      the running scan
+     * @param directory the directory to visit
+     */
+    private DirectoryTask(Scan scan, Path directory) {
+      this.scan = scan;
+      this.directory = directory;
+    }
+
+    @Override
+    protected void compute() {
+      var subtasks = new ArrayList<DirectoryTask>();
+      var seen = new long[16];
+      var length = 0;
+
+      try (var entries = Files.newDirectoryStream(directory)) {
+        for (var entry : entries) {
+          try {
+            var attributes = Files.readAttributes(
+                entry,
+                BasicFileAttributes.class,
+                LinkOption.NOFOLLOW_LINKS
+            );
+
+            if (attributes.isDirectory()) {
+              var subtask = new DirectoryTask(scan, entry);
+
+              subtask.fork();
+
+              subtasks.add(subtask);
+            } else if (attributes.isRegularFile()) {
+              var pathHash = DigestIndex.hash(scan.root.relativize(entry).toString());
+
+              if (length == seen.length) {
+                seen = Arrays.copyOf(seen, length * 2);
+              }
+
+              seen[length++] = pathHash;
+
+              visit(scan, entry, pathHash, attributes);
+            }
+          } catch (IOException e) {
+            LOGGER.warning("Could not read " + entry + ": " + e.getMessage());
+
+            scan.failed.increment();
+            scan.incomplete = true;
+          }
+        }
+      } catch (IOException e) {
+        LOGGER.warning("Could not list " + directory + ": " + e.getMessage());
+
+        scan.failed.increment();
+        scan.incomplete = true;
+      }
+
+      scan.seen.add(Arrays.copyOf(seen, length));
+
+      for (var subtask : subtasks) {
+        subtask.join();
+      }
+    }
+  }
+}
@@ -0,0 +1,644 @@
+package com.github.klaidoshka.fuzz;
+
+import static com.github.klaidoshka.util.StringUtil.toHex;
+
+import java.security.GeneralSecurityException;
+import java.security.Provider;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Differential fuzzer running random inputs through every provider of a primitive and comparing
+ * their outputs.
+ *
+ * <li>
+ * Inputs have random lengths, so most are not a multiple of the block size; some keys are
+ * shortened and some ciphertexts have a flipped bit before being decrypted again.
+ * </li>
+ * <li>
+ * Each worker owns one instance of every primitive per provider and a fixed set of buffers which
+ * it rewrites for every input, so fuzzing allocates little beyond the key specifications.
+ * </li>
+ * <li>
+ * Mismatches are told apart by whether all providers accepted the input and produced different
+ * outputs or only some of them rejected it, as providers accept different key lengths and weak keys.
+ * </li>
+ * <li>
+ * The first mismatch of every target, direction and kind is minimized to a small reproducer by
+ * removing and zeroing bytes while the providers still disagree in the same way.
+ * </li>
+ */
+public final class DifferentialFuzzer implements AutoCloseable {
+
+  /**
+   * Number of inputs between two checks of the deadline.
+   */
+  private static final int CHECK_INTERVAL = 256;
+
+  /**
+   * One in this many keys is shortened.
+   */
+  private static final int SHORT_KEY_ODDS = 16;
+
+  /**
+   * One in this many ciphertexts has a bit flipped before decryption.
+   */
+  private static final int FLIP_ODDS = 2;
+
+  /**
+   * Room left in the buffers for padding and digests.
+   */
+  private static final int OUTPUT_SLACK = 64;
+
+  /**
+   * Number of workers.
+   */
+  private final int parallelism;
+
+  /**
+   * Largest generated message in bytes.
+   */
+  private final int maxMessageLength;
+
+  /**
+   * Threads of the workers.
+   */
+  private final ExecutorService workers;
+
+  /**
+   * Create a fuzzer.
+   *
+   * @param parallelism      the number of workers
+   * @param maxMessageLength the largest generated message in bytes
+   */
+  public DifferentialFuzzer(int parallelism, int maxMessageLength) {
+    this.parallelism = parallelism;
+    this.maxMessageLength = maxMessageLength;
+    this.workers = Executors.newFixedThreadPool(parallelism, task -> {
+      var thread = new Thread(task, "differential-fuzzer");
+
+      thread.setDaemon(true);
+
+      return thread;
+    });
+  }
+
+  /**
+   * Fuzz targets for a given duration. Targets implemented by fewer than two providers are
+   * skipped, as there is nothing to compare them against.
+   *
+   * @param targets  the targets
+   * @param duration the duration of the run
+   * @param seed     the seed of the inputs
+   * @return the outcome of the run
+   * @throws InterruptedException if interrupted while waiting for the workers
+   */
+  public FuzzReport run(List<FuzzTarget> targets, Duration duration, long seed)
+      throws InterruptedException {
+    var compared = new ArrayList<FuzzTarget>();
+    var providers = new ArrayList<List<Provider>>();
+
+    for (var target : targets) {
+      var implementing = target.providers();
+
+      if (implementing.size() > 1) {
+        compared.add(target);
+        providers.add(implementing);
+      }
+    }
+
+    if (compared.isEmpty()) {
+      throw new IllegalArgumentException("No target is implemented by two providers");
+    }
+
+    var start = System.nanoTime();
+    var deadline = start + duration.toNanos();
+    var mismatches = new EnumMap<Mismatch.Kind, LongAdder>(Mismatch.Kind.class);
+
+    for (var kind : Mismatch.Kind.values()) {
+      mismatches.put(kind, new LongAdder());
+    }
+
+    var reproducers = new ConcurrentHashMap<String, Mismatch>();
+    var tasks = new ArrayList<Future<Long>>(parallelism);
+
+    for (var i = 0; i < parallelism; i++) {
+      tasks.add(workers.submit(new Worker(
+          compared,
+          providers,
+          maxMessageLength,
+          deadline,
+          seed + i,
+          mismatches,
+          reproducers
+      )));
+    }
+
+    var cases = 0L;
+
+    for (var task : tasks) {
+      try {
+        cases += task.get();
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Fuzzing worker failed", e.getCause());
+      }
+    }
+
+    return new FuzzReport(
+        cases,
+        mismatches.get(Mismatch.Kind.OUTPUT).sum(),
+        mismatches.get(Mismatch.Kind.REJECTION).sum(),
+        reproducers.values().stream().sorted(Comparator.comparing(Mismatch::kind)).toList(),
+        Duration.ofNanos(System.nanoTime() - start)
+    );
+  }
+
+  /**
+   * Stop the worker threads.
+   */
+  @Override
+  public void close() {
+    workers.shutdownNow();
+  }
+
+  /**
+   * Part of an input removed or zeroed by the minimization.
+   */
+  private enum Part {
+
+    /**
+     * Key.
+     */
+    KEY,
+
+    /**
+     * Initialization vector.
+     */
+    IV,
+
+    /**
+     * Message.
+     */
+    MESSAGE;
+
+    /**
+     * Get the part of an input.
+     *
+     * @param input the input
+     * @return the part
+     */
+    byte[] of(FuzzCase input) {
+      return switch (this) {
+        case KEY -> input.key();
+        case IV -> input.iv();
+        case MESSAGE -> input.message();
+      };
+    }
+
+    /**
+     * Replace the part of an input.
+     *
+     * @param input the input
+     * @param value the new part
+     * @return the new input
+     */
+    FuzzCase with(FuzzCase input, byte[] value) {
+      return new FuzzCase(
+          input.target(),
+          input.decrypt(),
+          this == KEY ? value : input.key(),
+          this == IV ? value : input.iv(),
+          this == MESSAGE ? value : input.message()
+      );
+    }
+  }
+
+  /**
+   * Worker fuzzing all targets in turn until the deadline.
+   */
+  private static final class Worker implements Callable<Long> {
+
+    /**
+     * Fuzzed targets.
+     */
+    private final List<FuzzTarget> targets;
+
+    /**
+     * Providers of every target.
+     */
+    private final List<List<Provider>> providers;
+
+    /**
+     * Largest generated message in bytes.
+     */
+    private final int maxMessageLength;
+
+    /**
+     * Time at which the worker stops.
+     */
+    private final long deadline;
+
+    /**
+     * Source of the inputs.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Number of inputs on which providers disagreed by kind, shared by all workers.
+     */
+    private final Map<Mismatch.Kind, LongAdder> mismatches;
+
+    /**
+     * Reproducers by target, direction and kind, shared by all workers.
+     */
+    private final Map<String, Mismatch> reproducers;
+
+    /**
+     * Key buffer.
+     */
+    private final byte[] key;
+
+    /**
+     * Initialization vector buffer.
+     */
+    private final byte[] iv;
+
+    /**
+     * Message buffer.
+     */
+    private final byte[] message;
+
+    /**
+     * Output buffer of the first provider, or of the first accepting one if it rejected the input.
+     */
+    private final byte[] expected;
+
+    /**
+     * Output buffer of the other providers.
+     */
+    private final byte[] actual;
+
+    /**
+     * Create a worker.
+     *
+     * @param targets          the fuzzed targets
+     * @param providers        the providers of every target
+     * @param maxMessageLength the largest generated message in bytes
+     * @param deadline         the time at which the worker stops
+     * @param seed             the seed of the inputs
+     * @param mismatches       the shared number of mismatching inputs by kind
+     * @param reproducers      the shared reproducers
+     */
+    private Worker(List<FuzzTarget> targets, List<List<Provider>> providers, int maxMessageLength,
+        long deadline, long seed, Map<Mismatch.Kind, LongAdder> mismatches,
+        Map<String, Mismatch> reproducers) {
+      this.targets = targets;
+      this.providers = providers;
+      this.maxMessageLength = maxMessageLength;
+      this.deadline = deadline;
+      this.random = new SplittableRandom(seed);
+      this.mismatches = mismatches;
+      this.reproducers = reproducers;
+      this.key = new byte[targets.stream().mapToInt(FuzzTarget::keyLength).max().orElse(0)];
+      this.iv = new byte[targets.stream().mapToInt(FuzzTarget::ivLength).max().orElse(0)];
+      this.message = new byte[maxMessageLength + OUTPUT_SLACK];
+      this.expected = new byte[maxMessageLength + 2 * OUTPUT_SLACK];
+      this.actual = new byte[maxMessageLength + 2 * OUTPUT_SLACK];
+    }
+
+    @Override
+    public Long call() throws GeneralSecurityException {
+      var primitives = new Primitive[targets.size()][];
+
+      for (var i = 0; i < primitives.length; i++) {
+        var implementing = providers.get(i);
+
+        primitives[i] = new Primitive[implementing.size()];
+
+        for (var j = 0; j < implementing.size(); j++) {
+          primitives[i][j] = new Primitive(targets.get(i), implementing.get(j));
+        }
+      }
+
+      var cases = 0L;
+      var index = 0;
+
+      while (System.nanoTime() < deadline) {
+        for (var i = 0; i < CHECK_INTERVAL; i++) {
+          cases += fuzz(targets.get(index), primitives[index]);
+          index = (index + 1) % targets.size();
+        }
+      }
+
+      return cases;
+    }
+
+    /**
+     * Generate an input of a target and compare it across providers; ciphertexts are decrypted
+     * and compared again.
+     *
+     * @param target     the target
+     * @param primitives the instances of the target, one per provider
+     * @return the number of compared inputs
+     */
+    private int fuzz(FuzzTarget target, Primitive[] primitives) {
+      var keyLength = target.keyLength();
+
+      if (keyLength > 1 && random.nextInt(SHORT_KEY_ODDS) == 0) {
+        keyLength = 1 + random.nextInt(keyLength - 1);
+      }
+
+      var ivLength = target.ivLength();
+      var messageLength = random.nextInt(maxMessageLength + 1);
+
+      fill(key, keyLength);
+      fill(iv, ivLength);
+      fill(message, messageLength);
+
+      var length = compare(primitives, false, keyLength, ivLength, messageLength);
+
+      if (target.kind() != FuzzTarget.Kind.CIPHER || length == Primitive.REJECTED) {
+        return 1;
+      }
+
+      System.arraycopy(expected, 0, message, 0, length);
+
+      if (length > 0 && random.nextInt(FLIP_ODDS) == 0) {
+        var bit = random.nextInt(length * 8);
+
+        message[bit / 8] ^= (byte) (1 << (bit % 8));
+      }
+
+      compare(primitives, true, keyLength, ivLength, length);
+
+      return 2;
+    }
+
+    /**
+     * Fill the start of a buffer with random bytes.
+     *
+     * @param buffer the buffer
+     * @param length the number of bytes to fill
+     */
+    private void fill(byte[] buffer, int length) {
+      for (var i = 0; i < length; i += 8) {
+        var value = random.nextLong();
+
+        for (var j = i; j < Math.min(length, i + 8); j++) {
+          buffer[j] = (byte) value;
+          value >>>= 8;
+        }
+      }
+    }
+
+    /**
+     * Compare the buffered input across providers and record a reproducer of a mismatch.
+     *
+     * @param primitives    the instances of the target, one per provider
+     * @param decrypt       true to decrypt, false to encrypt
+     * @param keyLength     the length of the key
+     * @param ivLength      the length of the initialization vector
+     * @param messageLength the length of the message
+     * @return the output length of the first provider, or {@link Primitive#REJECTED}
+     */
+    private int compare(Primitive[] primitives, boolean decrypt, int keyLength, int ivLength,
+        int messageLength) {
+      var length = primitives[0].run(
+          decrypt,
+          key,
+          keyLength,
+          iv,
+          ivLength,
+          message,
+          messageLength,
+          expected
+      );
+
+      var kind = classify(primitives, decrypt, keyLength, ivLength, messageLength, length);
+
+      if (kind != null) {
+        mismatches.get(kind).increment();
+
+        var target = primitives[0].target();
+        var id = target.algorithm() + (decrypt ? " (decrypt) " : " ") + kind;
+
+        if (!reproducers.containsKey(id)) {
+          var input = new FuzzCase(
+              target,
+              decrypt,
+              Arrays.copyOf(key, keyLength),
+              Arrays.copyOf(iv, ivLength),
+              Arrays.copyOf(message, messageLength)
+          );
+
+          reproducers.putIfAbsent(id, minimize(primitives, input, kind));
+        }
+      }
+
+      return length;
+    }
+
+    /**
+     * Compare the output of the other providers with the output of the first one. Outputs are
+     * compared whenever both providers accepted the input, so a provider rejecting it does not hide
+     * a different output of the others.
+     *
+     * @param primitives    the instances of the target, one per provider
+     * @param decrypt       true to decrypt, false to encrypt
+     * @param keyLength     the length of the key
+     * @param ivLength      the length of the initialization vector
+     * @param messageLength the length of the message
+     * @param length        the output length of the first provider
+     * @return the kind of the mismatch, or null if all providers agree
+     */
+    private Mismatch.Kind classify(Primitive[] primitives, boolean decrypt, int keyLength,
+        int ivLength, int messageLength, int length) {
+      Mismatch.Kind kind = null;
+      var reference = length;
+
+      for (var i = 1; i < primitives.length; i++) {
+        var actualLength = primitives[i].run(
+            decrypt,
+            key,
+            keyLength,
+            iv,
+            ivLength,
+            message,
+            messageLength,
+            actual
+        );
+
+        if ((actualLength == Primitive.REJECTED) != (length == Primitive.REJECTED)) {
+          kind = Mismatch.Kind.REJECTION;
+        }
+
+        if (actualLength == Primitive.REJECTED) {
+          continue;
+        }
+
+        if (reference == Primitive.REJECTED) {
+          System.arraycopy(actual, 0, expected, 0, actualLength);
+          reference = actualLength;
+        } else if (actualLength != reference
+            || !Arrays.equals(expected, 0, reference, actual, 0, reference)) {
+          return Mismatch.Kind.OUTPUT;
+        }
+      }
+
+      return kind;
+    }
+
+    /**
+     * Compare an input across providers, overwriting the buffers.
+     *
+     * @param primitives the instances of the target, one per provider
+     * @param input      the input
+     * @return the kind of the mismatch, or null if all providers agree
+     */
+    private Mismatch.Kind classify(Primitive[] primitives, FuzzCase input) {
+      load(input);
+
+      var length = primitives[0].run(
+          input.decrypt(),
+          key,
+          input.key().length,
+          iv,
+          input.iv().length,
+          message,
+          input.message().length,
+          expected
+      );
+
+      return classify(
+          primitives,
+          input.decrypt(),
+          input.key().length,
+          input.iv().length,
+          input.message().length,
+          length
+      );
+    }
+
+    /**
+     * Copy an input into the buffers.
+     *
+     * @param input the input
+     */
+    private void load(FuzzCase input) {
+      System.arraycopy(input.key(), 0, key, 0, input.key().length);
+      System.arraycopy(input.iv(), 0, iv, 0, input.iv().length);
+      System.arraycopy(input.message(), 0, message, 0, input.message().length);
+    }
+
+    /**
+     * Minimize a mismatching input by removing chunks of the message and key and zeroing bytes
+     * for as long as the providers still disagree in the same way.
+     *
+     * @param primitives the instances of the target, one per provider
+     * @param input      the mismatching input
+     * @param kind       the kind of the mismatch
+     * @return the reproducer
+     */
+    private Mismatch minimize(Primitive[] primitives, FuzzCase input, Mismatch.Kind kind) {
+      var current = input;
+      var progress = true;
+
+      while (progress) {
+        progress = false;
+
+        for (var part : new Part[]{Part.MESSAGE, Part.KEY}) {
+          // Keys of keyed targets cannot be empty
+          var minimum = part == Part.KEY && current.key().length > 0 ? 1 : 0;
+
+          for (var chunk = part.of(current).length - minimum; chunk > 0; chunk /= 2) {
+            for (var from = 0; from + chunk <= part.of(current).length
+                && part.of(current).length - chunk >= minimum; ) {
+              var bytes = part.of(current);
+              var shorter = new byte[bytes.length - chunk];
+
+              System.arraycopy(bytes, 0, shorter, 0, from);
+              System.arraycopy(bytes, from + chunk, shorter, from, bytes.length - from - chunk);
+
+              var candidate = part.with(current, shorter);
+
+              if (classify(primitives, candidate) == kind) {
+                current = candidate;
+                progress = true;
+              } else {
+                from += chunk;
+              }
+            }
+          }
+        }
+
+        for (var part : Part.values()) {
+          for (var i = 0; i < part.of(current).length; i++) {
+            if (part.of(current)[i] == 0) {
+              continue;
+            }
+
+            var zeroed = part.of(current).clone();
+
+            zeroed[i] = 0;
+
+            var candidate = part.with(current, zeroed);
+
+            if (classify(primitives, candidate) == kind) {
+              current = candidate;
+              progress = true;
+            }
+          }
+        }
+      }
+
+      return new Mismatch(kind, current, outcomes(primitives, current));
+    }
+
+    /**
+     * Describe the outcome of every provider for an input.
+     *
+     * @param primitives the instances of the target, one per provider
+     * @param input      the input
+     * @return the outcomes in provider order
+     */
+    private List<String> outcomes(Primitive[] primitives, FuzzCase input) {
+      var outcomes = new ArrayList<String>(primitives.length);
+
+      load(input);
+
+      for (var primitive : primitives) {
+        var length = primitive.run(
+            input.decrypt(),
+            key,
+            input.key().length,
+            iv,
+            input.iv().length,
+            message,
+            input.message().length,
+            actual
+        );
+
+        outcomes.add(
+            primitive.provider() + ": " + (length == Primitive.REJECTED
+                ? "rejected (" + primitive.rejection() + ")"
+                : toHex(actual, length))
+        );
+      }
+
+      return outcomes;
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.github.klaidoshka.fuzz;
+
+/**
+ * Single input of a target, kept only to reproduce a mismatch.
+ *
+ * @param target  the target
+ * @param decrypt true if the input is decrypted, false if it is encrypted, digested or MAC-ed
+ * @param key     the key, empty for digests
+ * @param iv      the initialization vector, empty if none is used
+ * @param message the message
+ */
+public record FuzzCase(
+    FuzzTarget target,
+    boolean decrypt,
+    byte[] key,
+    byte[] iv,
+    byte[] message
+) {
+
+}
@@ -0,0 +1,41 @@
+package com.github.klaidoshka.fuzz;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a fuzzing run.
+ *
+ * @param cases               the number of inputs compared across providers
+ * @param outputMismatches    the number of inputs accepted by all providers with different outputs
+ * @param rejectionMismatches the number of inputs rejected by some providers only
+ * @param reproducers         the minimized reproducers, at most one per target, direction and kind
+ *                            of mismatch, output mismatches first
+ * @param elapsed             the wall time of the run
+ */
+public record FuzzReport(
+    long cases,
+    long outputMismatches,
+    long rejectionMismatches,
+    List<Mismatch> reproducers,
+    Duration elapsed
+) {
+
+  /**
+   * Get the number of inputs on which providers disagreed.
+   *
+   * @return the number of mismatches of any kind
+   */
+  public long mismatches() {
+    return outputMismatches + rejectionMismatches;
+  }
+
+  /**
+   * Get the number of compared inputs per minute.
+   *
+   * @return the fuzzing rate
+   */
+  public double casesPerMinute() {
+    return cases / Math.max(elapsed.toNanos() / 60e9, 1e-9);
+  }
+}
@@ -0,0 +1,106 @@
+package com.github.klaidoshka.fuzz;
+
+import java.security.GeneralSecurityException;
+import java.security.Provider;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primitive compared across providers.
+ *
+ * @param kind      the kind of the primitive
+ * @param algorithm the algorithm or transformation passed to {@code getInstance}
+ * @param keyType   the algorithm of the secret key, or null for digests
+ * @param keyLength the regular length of the key in bytes, or 0 for digests
+ * @param ivLength  the length of the initialization vector in bytes, or 0 if none is used
+ */
+public record FuzzTarget(
+    Kind kind,
+    String algorithm,
+    String keyType,
+    int keyLength,
+    int ivLength
+) {
+
+  /**
+   * Create a message digest target.
+   *
+   * @param algorithm the digest algorithm
+   * @return the target
+   */
+  public static FuzzTarget digest(String algorithm) {
+    return new FuzzTarget(Kind.DIGEST, algorithm, null, 0, 0);
+  }
+
+  /**
+   * Create a message authentication code target.
+   *
+   * @param algorithm the MAC algorithm
+   * @param keyLength the regular length of the key in bytes
+   * @return the target
+   */
+  public static FuzzTarget mac(String algorithm, int keyLength) {
+    return new FuzzTarget(Kind.MAC, algorithm, algorithm, keyLength, 0);
+  }
+
+  /**
+   * Create a cipher target, fuzzed in both directions.
+   *
+   * @param transformation the cipher transformation
+   * @param keyLength      the regular length of the key in bytes
+   * @param ivLength       the length of the initialization vector in bytes, or 0 if none is used
+   * @return the target
+   */
+  public static FuzzTarget cipher(String transformation, int keyLength, int ivLength) {
+    return new FuzzTarget(
+        Kind.CIPHER,
+        transformation,
+        transformation.split("/")[0],
+        keyLength,
+        ivLength
+    );
+  }
+
+  /**
+   * Find the installed providers implementing the target.
+   *
+   * @return the providers in preference order
+   */
+  public List<Provider> providers() {
+    var providers = new ArrayList<Provider>();
+
+    for (var provider : Security.getProviders()) {
+      try {
+        new Primitive(this, provider);
+
+        providers.add(provider);
+      } catch (GeneralSecurityException ignored) {
+        // The provider does not implement the target
+      }
+    }
+
+    return providers;
+  }
+
+  /**
+   * Kind of a primitive.
+   */
+  public enum Kind {
+
+    /**
+     * {@link java.security.MessageDigest}.
+     */
+    DIGEST,
+
+    /**
+     * {@link javax.crypto.Mac}.
+     */
+    MAC,
+
+    /**
+     * {@link javax.crypto.Cipher}.
+     */
+    CIPHER
+  }
+}
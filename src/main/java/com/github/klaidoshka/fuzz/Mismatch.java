@@ -0,0 +1,30 @@
+package com.github.klaidoshka.fuzz;
+
+import java.util.List;
+
+/**
+ * Minimized reproducer of a difference between providers.
+ *
+ * @param kind       the kind of the difference
+ * @param reproducer the minimized input
+ * @param outcomes   the outcome of every provider for the input, in provider order
+ */
+public record Mismatch(Kind kind, FuzzCase reproducer, List<String> outcomes) {
+
+  /**
+   * Kind of a difference between providers.
+   */
+  public enum Kind {
+
+    /**
+     * Providers accepted the input but produced different outputs.
+     */
+    OUTPUT,
+
+    /**
+     * Some providers rejected the input while others accepted it, e.g. because they accept
+     * different key lengths or weak keys.
+     */
+    REJECTION
+  }
+}
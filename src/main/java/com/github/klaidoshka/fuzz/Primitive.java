@@ -0,0 +1,154 @@
+package com.github.klaidoshka.fuzz;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.Provider;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Instance of a target from a single provider, owned by a single worker and reused for all of its
+ * inputs.
+ */
+final class Primitive {
+
+  /**
+   * Length returned for an input rejected by the provider.
+   */
+  static final int REJECTED = -1;
+
+  /**
+   * Implemented target.
+   */
+  private final FuzzTarget target;
+
+  /**
+   * Name of the provider.
+   */
+  private final String provider;
+
+  /**
+   * Digest, if the target is a digest.
+   */
+  private final MessageDigest digest;
+
+  /**
+   * MAC, if the target is a MAC.
+   */
+  private final Mac mac;
+
+  /**
+   * Cipher, if the target is a cipher.
+   */
+  private final Cipher cipher;
+
+  /**
+   * Name of the exception of the last rejected input.
+   */
+  private String rejection;
+
+  /**
+   * Create an instance.
+   *
+   * @param target   the target
+   * @param provider the provider
+   * @throws GeneralSecurityException if the provider does not implement the target
+   */
+  Primitive(FuzzTarget target, Provider provider) throws GeneralSecurityException {
+    this.target = target;
+    this.provider = provider.getName();
+    this.digest = target.kind() == FuzzTarget.Kind.DIGEST
+        ? MessageDigest.getInstance(target.algorithm(), provider)
+        : null;
+    this.mac = target.kind() == FuzzTarget.Kind.MAC
+        ? Mac.getInstance(target.algorithm(), provider)
+        : null;
+    this.cipher = target.kind() == FuzzTarget.Kind.CIPHER
+        ? Cipher.getInstance(target.algorithm(), provider)
+        : null;
+  }
+
+  /**
+   * Get the implemented target.
+   *
+   * @return the target
+   */
+  FuzzTarget target() {
+    return target;
+  }
+
+  /**
+   * Get the name of the provider.
+   *
+   * @return the name
+   */
+  String provider() {
+    return provider;
+  }
+
+  /**
+   * Get the name of the exception of the last rejected input.
+   *
+   * @return the name
+   */
+  String rejection() {
+    return rejection;
+  }
+
+  /**
+   * Run an input through the primitive.
+   *
+   * @param decrypt       true to decrypt, false to encrypt; ignored by digests and MACs
+   * @param key           the key buffer
+   * @param keyLength     the length of the key
+   * @param iv            the initialization vector buffer
+   * @param ivLength      the length of the initialization vector
+   * @param message       the message buffer
+   * @param messageLength the length of the message
+   * @param output        the output buffer, large enough for the message with a block of padding
+   *                      or for a digest
+   * @return the length of the output, or {@link #REJECTED} if the provider rejected the input
+   */
+  int run(boolean decrypt, byte[] key, int keyLength, byte[] iv, int ivLength, byte[] message,
+      int messageLength, byte[] output) {
+    try {
+      switch (target.kind()) {
+        case DIGEST -> {
+          digest.update(message, 0, messageLength);
+
+          return digest.digest(output, 0, output.length);
+        }
+        case MAC -> {
+          mac.init(new SecretKeySpec(key, 0, keyLength, target.keyType()));
+          mac.update(message, 0, messageLength);
+          mac.doFinal(output, 0);
+
+          return mac.getMacLength();
+        }
+        default -> {
+          var mode = decrypt ? Cipher.DECRYPT_MODE : Cipher.ENCRYPT_MODE;
+          var secretKey = new SecretKeySpec(key, 0, keyLength, target.keyType());
+
+          if (target.ivLength() == 0) {
+            cipher.init(mode, secretKey);
+          } else {
+            cipher.init(mode, secretKey, new IvParameterSpec(iv, 0, ivLength));
+          }
+
+          return cipher.doFinal(message, 0, messageLength, output, 0);
+        }
+      }
+    } catch (GeneralSecurityException | RuntimeException e) {
+      // Unchecked exceptions count as rejections too, providers differ in which they throw
+      rejection = e.getClass().getSimpleName();
+
+      if (digest != null) {
+        digest.reset();
+      }
+
+      return REJECTED;
+    }
+  }
+}
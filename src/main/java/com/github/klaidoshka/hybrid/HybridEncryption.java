@@ -0,0 +1,69 @@
+package com.github.klaidoshka.hybrid;
+
+import com.github.klaidoshka.random.NonceGenerator;
+import com.github.klaidoshka.random.RandomService;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+/**
+ * Hybrid encryption: the asymmetric key encapsulation runs once per session, while every message
+ * of the session is encrypted with AES-GCM under the encapsulated session key.
+ */
+public final class HybridEncryption {
+
+  /**
+   * Mechanism transporting the session keys.
+   */
+  private final KeyEncapsulation encapsulation;
+
+  /**
+   * Source of session keys and nonce prefixes.
+   */
+  private final RandomService random;
+
+  /**
+   * Create a hybrid encryption scheme.
+   *
+   * @param encapsulation the mechanism transporting the session keys
+   * @param random        the source of session keys and nonce prefixes
+   */
+  public HybridEncryption(KeyEncapsulation encapsulation, RandomService random) {
+    this.encapsulation = encapsulation;
+    this.random = random;
+  }
+
+  /**
+   * Open a sending session with a fresh session key for the recipient.
+   *
+   * @param recipient the public key of the recipient
+   * @return the session; its encapsulation has to be sent to the recipient
+   * @throws GeneralSecurityException if the session key cannot be encapsulated
+   */
+  public HybridSession sender(PublicKey recipient) throws GeneralSecurityException {
+    var encapsulated = encapsulation.encapsulate(recipient, random);
+
+    return new HybridSession(
+        encapsulated.encapsulation(),
+        encapsulated.key(),
+        random.nonceGenerator(NonceGenerator.Layout.GCM)
+    );
+  }
+
+  /**
+   * Open a receiving session from an encapsulation sent by the sender.
+   *
+   * @param recipient     the private key of the recipient
+   * @param encapsulation the encapsulation of the sending session
+   * @return the session, only able to decrypt
+   * @throws GeneralSecurityException if the encapsulation is invalid
+   */
+  public HybridSession receiver(PrivateKey recipient, byte[] encapsulation)
+      throws GeneralSecurityException {
+    return new HybridSession(
+        encapsulation.clone(),
+        this.encapsulation.decapsulate(recipient, encapsulation),
+        null
+    );
+  }
+}
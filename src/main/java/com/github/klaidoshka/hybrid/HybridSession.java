@@ -0,0 +1,239 @@
+package com.github.klaidoshka.hybrid;
+
+import com.github.klaidoshka.random.NonceGenerator;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Session of a hybrid encryption, encrypting or decrypting any number of messages under a single
+ * session key.
+ *
+ * <li>
+ * Messages are laid out as nonce, ciphertext and tag; the encapsulation is authenticated as
+ * additional data, binding every message to its session.
+ * </li>
+ * <li>
+ * The AES-GCM cipher and the stream buffers are created once per session and reused.
+ * </li>
+ * <li>
+ * A session is not thread-safe; open a session per thread instead.
+ * </li>
+ */
+public final class HybridSession {
+
+  /**
+   * Cipher transformation label.
+   */
+  private static final String CIPHER_TRANSFORMATION = "%s/%s/%s".formatted(
+      KeyEncapsulation.SESSION_CIPHER,
+      "GCM",
+      "NoPadding"
+  );
+
+  /**
+   * Length of the authentication tag in bits.
+   */
+  private static final int TAG_LENGTH = 128;
+
+  /**
+   * Size of the stream buffer.
+   */
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Encapsulation of the session key.
+   */
+  private final byte[] encapsulation;
+
+  /**
+   * Session key.
+   */
+  private final SecretKey key;
+
+  /**
+   * Generator of message nonces, null for receiving sessions.
+   */
+  private final NonceGenerator nonces;
+
+  /**
+   * Cipher reused for all messages of the session.
+   */
+  private final Cipher cipher;
+
+  /**
+   * Nonce of the current message.
+   */
+  private final byte[] nonce = new byte[NonceGenerator.Layout.GCM.length()];
+
+  /**
+   * Buffer for stream input, created on first use.
+   */
+  private byte[] input;
+
+  /**
+   * Buffer for stream output, created on first use.
+   */
+  private byte[] output;
+
+  /**
+   * Create a session.
+   *
+   * @param encapsulation the encapsulation of the session key
+   * @param key           the session key
+   * @param nonces        the generator of message nonces, or null for receiving sessions
+   * @throws GeneralSecurityException if the cipher is not available
+   */
+  HybridSession(byte[] encapsulation, SecretKey key, NonceGenerator nonces)
+      throws GeneralSecurityException {
+    this.encapsulation = encapsulation;
+    this.key = key;
+    this.nonces = nonces;
+    this.cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+  }
+
+  /**
+   * Get the encapsulation the recipient needs to open the session.
+   *
+   * @return the encapsulation
+   */
+  public byte[] encapsulation() {
+    return encapsulation.clone();
+  }
+
+  /**
+   * Encrypt a message.
+   *
+   * @param text the message
+   * @return the nonce, ciphertext and tag
+   * @throws GeneralSecurityException if the encryption fails
+   */
+  public byte[] encrypt(byte[] text) throws GeneralSecurityException {
+    initEncrypt();
+
+    var message = new byte[nonce.length + cipher.getOutputSize(text.length)];
+
+    System.arraycopy(nonce, 0, message, 0, nonce.length);
+
+    cipher.doFinal(text, 0, text.length, message, nonce.length);
+
+    return message;
+  }
+
+  /**
+   * Decrypt a message.
+   *
+   * @param message the nonce, ciphertext and tag
+   * @return the decrypted message
+   * @throws GeneralSecurityException if the message is malformed or not authentic
+   */
+  public byte[] decrypt(byte[] message) throws GeneralSecurityException {
+    if (message.length < nonce.length) {
+      throw new GeneralSecurityException("Message is shorter than its nonce");
+    }
+
+    System.arraycopy(message, 0, nonce, 0, nonce.length);
+
+    initDecrypt();
+
+    return cipher.doFinal(message, nonce.length, message.length - nonce.length);
+  }
+
+  /**
+   * Encrypt a message of any size from a stream.
+   *
+   * @param in  the message
+   * @param out the stream receiving the nonce, ciphertext and tag
+   * @throws IOException              if a stream fails
+   * @throws GeneralSecurityException if the encryption fails
+   */
+  public void encrypt(InputStream in, OutputStream out)
+      throws IOException, GeneralSecurityException {
+    initEncrypt();
+
+    out.write(nonce);
+
+    transfer(in, out);
+  }
+
+  /**
+   * Decrypt a message of any size from a stream. Depending on the provider, plaintext may be
+   * written before the tag is verified, so everything written must be discarded if this method
+   * throws.
+   *
+   * @param in  the nonce, ciphertext and tag
+   * @param out the stream receiving the decrypted message
+   * @throws IOException              if a stream fails or the message is shorter than its nonce
+   * @throws GeneralSecurityException if the message is not authentic
+   */
+  public void decrypt(InputStream in, OutputStream out)
+      throws IOException, GeneralSecurityException {
+    if (in.readNBytes(nonce, 0, nonce.length) != nonce.length) {
+      throw new EOFException("Message is shorter than its nonce");
+    }
+
+    initDecrypt();
+
+    transfer(in, out);
+  }
+
+  /**
+   * Initialize the cipher for the next outgoing message.
+   *
+   * @throws GeneralSecurityException if the cipher cannot be initialized
+   */
+  private void initEncrypt() throws GeneralSecurityException {
+    if (nonces == null) {
+      throw new IllegalStateException("Receiving sessions cannot encrypt");
+    }
+
+    nonces.next(nonce, 0);
+
+    cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, nonce));
+    cipher.updateAAD(encapsulation);
+  }
+
+  /**
+   * Initialize the cipher for the incoming message whose nonce was just read.
+   *
+   * @throws GeneralSecurityException if the cipher cannot be initialized
+   */
+  private void initDecrypt() throws GeneralSecurityException {
+    cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, nonce));
+    cipher.updateAAD(encapsulation);
+  }
+
+  /**
+   * Pass a stream through the initialized cipher.
+   *
+   * @param in  the input
+   * @param out the output
+   * @throws IOException              if a stream fails
+   * @throws GeneralSecurityException if the cipher fails
+   */
+  private void transfer(InputStream in, OutputStream out)
+      throws IOException, GeneralSecurityException {
+    if (input == null) {
+      input = new byte[BUFFER_SIZE];
+      output = new byte[BUFFER_SIZE + TAG_LENGTH / 8 * 2];
+    }
+
+    int read;
+
+    while ((read = in.read(input)) >= 0) {
+      out.write(output, 0, cipher.update(input, 0, read, output));
+    }
+
+    var size = cipher.getOutputSize(0);
+
+    // Providers buffering the whole message until the tag is verified release it all at once
+    var last = size > output.length ? new byte[size] : output;
+
+    out.write(last, 0, cipher.doFinal(last, 0));
+  }
+}
@@ -0,0 +1,163 @@
+package com.github.klaidoshka.hybrid;
+
+import com.github.klaidoshka.random.RandomService;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import javax.crypto.Cipher;
+import javax.crypto.KeyAgreement;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.generators.HKDFBytesGenerator;
+import org.bouncycastle.crypto.params.HKDFParameters;
+
+/**
+ * Mechanisms transporting a fresh session key to the owner of a key pair.
+ */
+public enum KeyEncapsulation {
+
+  /**
+   * Random session key wrapped with RSA-OAEP (SHA-256) under the recipient's public key.
+   */
+  RSA_OAEP {
+    @Override
+    Encapsulated encapsulate(PublicKey recipient, RandomService random)
+        throws GeneralSecurityException {
+      var material = random.nextKey(KEY_LENGTH);
+
+      try {
+        var key = new SecretKeySpec(material, SESSION_CIPHER);
+        var cipher = Cipher.getInstance(OAEP_TRANSFORMATION, "BC");
+
+        cipher.init(Cipher.WRAP_MODE, recipient);
+
+        return new Encapsulated(cipher.wrap(key), key);
+      } finally {
+        Arrays.fill(material, (byte) 0);
+      }
+    }
+
+    @Override
+    SecretKey decapsulate(PrivateKey recipient, byte[] encapsulation)
+        throws GeneralSecurityException {
+      var cipher = Cipher.getInstance(OAEP_TRANSFORMATION, "BC");
+
+      cipher.init(Cipher.UNWRAP_MODE, recipient);
+
+      return (SecretKey) cipher.unwrap(encapsulation, SESSION_CIPHER, Cipher.SECRET_KEY);
+    }
+  },
+
+  /**
+   * Session key derived with HKDF-SHA256 from an ephemeral-static X25519 agreement; the ephemeral
+   * public key is the encapsulation.
+   */
+  X25519 {
+    @Override
+    Encapsulated encapsulate(PublicKey recipient, RandomService random)
+        throws GeneralSecurityException {
+      var generator = KeyPairGenerator.getInstance("X25519", "BC");
+      var ephemeral = generator.generateKeyPair();
+      var encapsulation = ephemeral.getPublic().getEncoded();
+
+      return new Encapsulated(
+          encapsulation,
+          derive(ephemeral.getPrivate(), recipient, encapsulation)
+      );
+    }
+
+    @Override
+    SecretKey decapsulate(PrivateKey recipient, byte[] encapsulation)
+        throws GeneralSecurityException {
+      var ephemeral = KeyFactory
+          .getInstance("X25519", "BC")
+          .generatePublic(new X509EncodedKeySpec(encapsulation));
+
+      return derive(recipient, ephemeral, encapsulation);
+    }
+
+    /**
+     * Agree on a shared secret and derive the session key from it.
+     *
+     * @param privateKey    the own private key
+     * @param publicKey     the other party's public key
+     * @param encapsulation the encapsulation, bound into the derivation
+     * @return the session key
+     * @throws GeneralSecurityException if the agreement fails
+     */
+    private SecretKey derive(PrivateKey privateKey, PublicKey publicKey, byte[] encapsulation)
+        throws GeneralSecurityException {
+      var agreement = KeyAgreement.getInstance("X25519", "BC");
+
+      agreement.init(privateKey);
+      agreement.doPhase(publicKey, true);
+
+      var secret = agreement.generateSecret();
+      var material = new byte[KEY_LENGTH];
+
+      try {
+        var hkdf = new HKDFBytesGenerator(new SHA256Digest());
+
+        hkdf.init(new HKDFParameters(secret, null, encapsulation));
+        hkdf.generateBytes(material, 0, material.length);
+
+        return new SecretKeySpec(material, SESSION_CIPHER);
+      } finally {
+        Arrays.fill(secret, (byte) 0);
+        Arrays.fill(material, (byte) 0);
+      }
+    }
+  };
+
+  /**
+   * Cipher the session key is meant for.
+   */
+  static final String SESSION_CIPHER = "AES";
+
+  /**
+   * Length of the session key in bytes.
+   */
+  private static final int KEY_LENGTH = 32;
+
+  /**
+   * Transformation used to wrap the session key with RSA.
+   */
+  private static final String OAEP_TRANSFORMATION = "RSA/None/OAEPWithSHA256AndMGF1Padding";
+
+  /**
+   * Generate a fresh session key for the recipient.
+   *
+   * @param recipient the public key of the recipient
+   * @param random    the source of key material
+   * @return the encapsulation to send and the session key
+   * @throws GeneralSecurityException if the key cannot be encapsulated
+   */
+  abstract Encapsulated encapsulate(PublicKey recipient, RandomService random)
+      throws GeneralSecurityException;
+
+  /**
+   * Recover the session key from an encapsulation.
+   *
+   * @param recipient     the private key of the recipient
+   * @param encapsulation the encapsulation received from the sender
+   * @return the session key
+   * @throws GeneralSecurityException if the encapsulation is invalid
+   */
+  abstract SecretKey decapsulate(PrivateKey recipient, byte[] encapsulation)
+      throws GeneralSecurityException;
+
+  /**
+   * Encapsulation of a session key together with the key itself.
+   *
+   * @param encapsulation the bytes to send to the recipient
+   * @param key           the session key
+   */
+  record Encapsulated(byte[] encapsulation, SecretKey key) {
+
+  }
+}
@@ -0,0 +1,253 @@
+package com.github.klaidoshka.key;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Off-heap memory for key material, split into slabs of equally sized slots per size class.
+ *
+ * <li>
+ * Slots are handed out from a free stack, so allocation does not create garbage.
+ * </li>
+ * <li>
+ * Freed slots are overwritten with zeroes before they become reusable.
+ * </li>
+ */
+final class KeyMemory {
+
+  /**
+   * Size of a single slab in bytes.
+   */
+  private static final int SLAB_SIZE = 64 * 1024;
+
+  /**
+   * Smallest slot size, as a power of two.
+   */
+  private static final int MIN_SHIFT = 4;
+
+  /**
+   * Largest slot size, as a power of two.
+   */
+  private static final int MAX_SHIFT = 12;
+
+  /**
+   * Largest key length the memory can hold.
+   */
+  static final int MAX_LENGTH = 1 << MAX_SHIFT;
+
+  /**
+   * Size classes indexed by their shift minus {@link #MIN_SHIFT}.
+   */
+  private final SizeClass[] classes = new SizeClass[MAX_SHIFT - MIN_SHIFT + 1];
+
+  /**
+   * Create an empty memory.
+   */
+  KeyMemory() {
+    for (var i = 0; i < classes.length; i++) {
+      classes[i] = new SizeClass(1 << (i + MIN_SHIFT));
+    }
+  }
+
+  /**
+   * Allocate a slot and copy the key material into it.
+   *
+   * @param key the key material
+   * @return the handle of the slot
+   */
+  long allocate(byte[] key) {
+    if (key.length > MAX_LENGTH) {
+      throw new IllegalArgumentException("Key is longer than " + MAX_LENGTH + " bytes");
+    }
+
+    var sizeClass = classOf(key.length);
+    var handle = sizeClass.allocate();
+
+    sizeClass.slab(handle).put(offset(handle), key);
+
+    return handle;
+  }
+
+  /**
+   * Copy the key material of a slot into the given array.
+   *
+   * @param handle the handle of the slot
+   * @param key    the array to copy into, exactly as long as the key
+   */
+  void read(long handle, byte[] key) {
+    var sizeClass = classOf(key.length);
+
+    sizeClass.slab(handle).get(offset(handle), key);
+  }
+
+  /**
+   * Zeroize a slot and return it to its size class.
+   *
+   * @param handle the handle of the slot
+   * @param length the length of the key stored in the slot
+   */
+  void free(long handle, int length) {
+    classOf(length).free(handle);
+  }
+
+  /**
+   * Zeroize and drop all slabs. The memory must not be used afterwards.
+   */
+  void clear() {
+    for (var sizeClass : classes) {
+      sizeClass.clear();
+    }
+  }
+
+  /**
+   * Get the number of off-heap bytes reserved by the memory.
+   *
+   * @return the reserved bytes
+   */
+  long reserved() {
+    var reserved = 0L;
+
+    for (var sizeClass : classes) {
+      reserved += sizeClass.reserved();
+    }
+
+    return reserved;
+  }
+
+  /**
+   * Get the size class holding keys of the given length.
+   *
+   * @param length the length of the key
+   * @return the size class
+   */
+  private SizeClass classOf(int length) {
+    var shift = Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(length, 1) - 1));
+
+    return classes[shift - MIN_SHIFT];
+  }
+
+  /**
+   * Get the byte offset of a slot within its slab.
+   *
+   * @param handle the handle of the slot
+   * @return the offset
+   */
+  private static int offset(long handle) {
+    return (int) handle;
+  }
+
+  /**
+   * Slabs and free slots of a single slot size.
+   */
+  private static final class SizeClass {
+
+    /**
+     * Zeroes used to wipe a slot.
+     */
+    private final byte[] zeroes;
+
+    /**
+     * Slabs of the class, replaced on growth so that reads need no lock.
+     */
+    private volatile ByteBuffer[] slabs = new ByteBuffer[0];
+
+    /**
+     * Stack of free slot handles.
+     */
+    private long[] free = new long[64];
+
+    /**
+     * Number of handles on the free stack.
+     */
+    private int freeCount;
+
+    /**
+     * Create a size class.
+     *
+     * @param slotSize the size of a slot in bytes
+     */
+    private SizeClass(int slotSize) {
+      this.zeroes = new byte[slotSize];
+    }
+
+    /**
+     * Take a free slot, adding a new slab if none is left.
+     *
+     * @return the handle of the slot
+     */
+    private synchronized long allocate() {
+      if (freeCount == 0) {
+        var index = (long) slabs.length << 32;
+
+        var grown = Arrays.copyOf(slabs, slabs.length + 1);
+
+        grown[grown.length - 1] = ByteBuffer.allocateDirect(SLAB_SIZE);
+        slabs = grown;
+
+        // Push in reverse so that slots are handed out in address order
+        for (var offset = SLAB_SIZE - zeroes.length; offset >= 0; offset -= zeroes.length) {
+          push(index | offset);
+        }
+      }
+
+      return free[--freeCount];
+    }
+
+    /**
+     * Zeroize a slot and push it onto the free stack.
+     *
+     * @param handle the handle of the slot
+     */
+    private synchronized void free(long handle) {
+      slab(handle).put(offset(handle), zeroes);
+
+      push(handle);
+    }
+
+    /**
+     * Get the slab of a slot.
+     *
+     * @param handle the handle of the slot
+     * @return the slab
+     */
+    private ByteBuffer slab(long handle) {
+      return slabs[(int) (handle >>> 32)];
+    }
+
+    /**
+     * Zeroize and drop all slabs.
+     */
+    private synchronized void clear() {
+      for (var slab : slabs) {
+        for (var offset = 0; offset < SLAB_SIZE; offset += zeroes.length) {
+          slab.put(offset, zeroes);
+        }
+      }
+
+      slabs = new ByteBuffer[0];
+      freeCount = 0;
+    }
+
+    /**
+     * Get the number of off-heap bytes reserved by the class.
+     *
+     * @return the reserved bytes
+     */
+    private synchronized long reserved() {
+      return (long) slabs.length * SLAB_SIZE;
+    }
+
+    /**
+     * Push a handle onto the free stack, growing it if needed.
+     *
+     * @param handle the handle of the slot
+     */
+    private void push(long handle) {
+      if (freeCount == free.length) {
+        free = Arrays.copyOf(free, free.length << 1);
+      }
+
+      free[freeCount++] = handle;
+    }
+  }
+}
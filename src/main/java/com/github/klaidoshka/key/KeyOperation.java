@@ -0,0 +1,22 @@
+package com.github.klaidoshka.key;
+
+import java.security.GeneralSecurityException;
+
+/**
+ * Operation performed with a primitive initialized with a stored key.
+ *
+ * @param <T> the type of the primitive, e.g. {@link javax.crypto.Mac}
+ * @param <R> the type of the result
+ */
+@FunctionalInterface
+public interface KeyOperation<T, R> {
+
+  /**
+   * Perform the operation. The primitive must not be used after this method returns.
+   *
+   * @param primitive the initialized primitive
+   * @return the result of the operation
+   * @throws GeneralSecurityException if the operation fails
+   */
+  R apply(T primitive) throws GeneralSecurityException;
+}
@@ -0,0 +1,325 @@
+package com.github.klaidoshka.key;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Pool of key pairs pre-generated on background threads.
+ *
+ * <li>
+ * Generators fill the pool up to the high watermark and then sleep until it drains below the low
+ * watermark, so the pool refills in batches instead of after every take.
+ * </li>
+ * <li>
+ * Taking a key pair never waits for a generator: an empty pool falls back to generating on the
+ * calling thread.
+ * </li>
+ * <li>
+ * Depth, generated count, fallbacks and generation rate are exposed as {@link Metrics}.
+ * </li>
+ */
+public final class KeyPairPool implements AutoCloseable {
+
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER = Logger.getLogger(KeyPairPool.class.getName());
+
+  /**
+   * Key pair algorithm, e.g. "RSA".
+   */
+  private final String algorithm;
+
+  /**
+   * Size of the generated keys in bits.
+   */
+  private final int keySize;
+
+  /**
+   * Depth below which the generators resume.
+   */
+  private final int lowWatermark;
+
+  /**
+   * Pre-generated key pairs, bounded by the high watermark.
+   */
+  private final ArrayBlockingQueue<KeyPair> pool;
+
+  /**
+   * Background generator threads.
+   */
+  private final ExecutorService generators;
+
+  /**
+   * Lock guarding the refill state.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Signalled when the pool drops below the low watermark.
+   */
+  private final Condition drained = lock.newCondition();
+
+  /**
+   * Whether the generators are filling the pool; written under the lock only.
+   */
+  private volatile boolean filling = true;
+
+  /**
+   * Number of key pairs generated in the background.
+   */
+  private final LongAdder generated = new LongAdder();
+
+  /**
+   * Total time spent generating key pairs in the background.
+   */
+  private final LongAdder generationNanos = new LongAdder();
+
+  /**
+   * Number of takes that found the pool empty.
+   */
+  private final LongAdder fallbacks = new LongAdder();
+
+  /**
+   * Creation time of the pool.
+   */
+  private final long createdNanos = System.nanoTime();
+
+  /**
+   * Create a pool and start its generators.
+   *
+   * @param algorithm     the key pair algorithm, e.g. "RSA"
+   * @param keySize       the size of the keys in bits
+   * @param lowWatermark  the depth below which the generators resume, at least 1
+   * @param highWatermark the depth at which the generators pause
+   * @param threads       the number of generator threads
+   * @throws GeneralSecurityException if the algorithm is not available
+   */
+  public KeyPairPool(String algorithm, int keySize, int lowWatermark, int highWatermark,
+      int threads) throws GeneralSecurityException {
+    // Generators resume below the low watermark, so a low watermark of 0 would never resume them
+    if (lowWatermark < 1 || highWatermark <= lowWatermark || threads <= 0) {
+      throw new IllegalArgumentException("Invalid watermarks or thread count");
+    }
+
+    // Fail early on an unknown algorithm or key size instead of inside the generators
+    createGenerator(algorithm, keySize);
+
+    this.algorithm = algorithm;
+    this.keySize = keySize;
+    this.lowWatermark = lowWatermark;
+    this.pool = new ArrayBlockingQueue<>(highWatermark);
+
+    var ids = new AtomicInteger();
+
+    this.generators = Executors.newFixedThreadPool(threads, task -> {
+      var thread = new Thread(task, "key-pair-pool-" + ids.incrementAndGet());
+
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MIN_PRIORITY);
+
+      return thread;
+    });
+
+    for (var i = 0; i < threads; i++) {
+      generators.execute(this::generate);
+    }
+  }
+
+  /**
+   * Take a pre-generated key pair if one is available.
+   *
+   * @return the key pair, or null if the pool is empty
+   */
+  public KeyPair poll() {
+    var keyPair = pool.poll();
+
+    if (pool.size() < lowWatermark) {
+      resume();
+    }
+
+    return keyPair;
+  }
+
+  /**
+   * Take a pre-generated key pair, generating one on the calling thread if the pool is empty.
+   *
+   * @return the key pair
+   * @throws GeneralSecurityException if the fallback generation fails
+   */
+  public KeyPair take() throws GeneralSecurityException {
+    var keyPair = poll();
+
+    if (keyPair != null) {
+      return keyPair;
+    }
+
+    fallbacks.increment();
+
+    return createGenerator(algorithm, keySize).generateKeyPair();
+  }
+
+  /**
+   * Get a snapshot of the pool metrics.
+   *
+   * @return the metrics
+   */
+  public Metrics metrics() {
+    var count = generated.sum();
+    var nanos = generationNanos.sum();
+
+    return new Metrics(
+        pool.size(),
+        count,
+        fallbacks.sum(),
+        count == 0 ? 0 : nanos / 1e6 / count,
+        count / ((System.nanoTime() - createdNanos) / 1e9)
+    );
+  }
+
+  /**
+   * Stop the generators. Pooled key pairs are dropped.
+   */
+  @Override
+  public void close() {
+    generators.shutdownNow();
+    pool.clear();
+  }
+
+  /**
+   * Loop of a generator thread.
+   */
+  private void generate() {
+    KeyPairGenerator generator;
+
+    try {
+      generator = createGenerator(algorithm, keySize);
+    } catch (GeneralSecurityException e) {
+      LOGGER.severe("Key pair generator failed: " + e.getMessage());
+
+      return;
+    }
+
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        awaitDrained();
+
+        var start = System.nanoTime();
+        var keyPair = generator.generateKeyPair();
+
+        generationNanos.add(System.nanoTime() - start);
+        generated.increment();
+
+        if (!pool.offer(keyPair)) {
+          // Another generator filled the last slot meanwhile; keep the pair for the next round
+          pause();
+          pool.put(keyPair);
+        }
+
+        if (pool.remainingCapacity() == 0) {
+          pause();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Block until the pool needs filling.
+   *
+   * @throws InterruptedException if the pool is closed
+   */
+  private void awaitDrained() throws InterruptedException {
+    lock.lock();
+
+    try {
+      while (!filling) {
+        drained.await();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Stop filling the pool until it drains below the low watermark.
+   */
+  private void pause() {
+    lock.lock();
+
+    try {
+      filling = pool.size() < lowWatermark;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Wake the generators up.
+   */
+  private void resume() {
+    // Keeps takes lock-free while the generators are already running
+    if (filling) {
+      return;
+    }
+
+    lock.lock();
+
+    try {
+      if (!filling) {
+        filling = true;
+
+        drained.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Create and initialize a key pair generator.
+   *
+   * @param algorithm the key pair algorithm
+   * @param keySize   the size of the keys in bits
+   * @return the generator
+   * @throws GeneralSecurityException if the algorithm is not available
+   */
+  private static KeyPairGenerator createGenerator(String algorithm, int keySize)
+      throws GeneralSecurityException {
+    var generator = KeyPairGenerator.getInstance(algorithm, "BC");
+
+    generator.initialize(keySize, new SecureRandom());
+
+    return generator;
+  }
+
+  /**
+   * Snapshot of the pool metrics.
+   *
+   * @param depth                   the number of pooled key pairs
+   * @param generated               the number of key pairs generated in the background
+   * @param fallbacks               the number of takes that generated on the calling thread
+   * @param averageGenerationMillis the average background generation time of a key pair
+   * @param generationRate          the background key pairs generated per second since creation
+   */
+  public record Metrics(
+      int depth,
+      long generated,
+      long fallbacks,
+      double averageGenerationMillis,
+      double generationRate
+  ) {
+
+  }
+}
@@ -0,0 +1,723 @@
+package com.github.klaidoshka.key;
+
+import java.io.Closeable;
+import java.io.Serial;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Key store holding symmetric key material off-heap.
+ *
+ * <li>
+ * Keys are looked up by id through a {@link ConcurrentHashMap}, whose reads never block.
+ * </li>
+ * <li>
+ * Initialized {@link Mac} and {@link Cipher} contexts are pooled per key, so repeated use of a key
+ * skips provider lookup and copying the key to the heap; MACs also skip key setup, while ciphers
+ * are re-initialized for every operation. Only a bounded number of keys keep pooled contexts; when a
+ * further key needs them, the contexts of a key not used recently are dropped (CLOCK replacement).
+ * </li>
+ * <li>
+ * Evicting a key zeroizes its off-heap slot as soon as no operation uses it anymore and drops its
+ * pooled contexts. Closing the store zeroizes all off-heap memory.
+ * </li>
+ *
+ * <p>
+ * JCA primitives only accept keys as heap objects, so every context holds a heap copy of its key.
+ * Dropped contexts have their key copy zeroized and their primitive re-initialized with an all-zero
+ * key, overwriting the key state providers keep in place; state a provider reallocates on
+ * initialization cannot be reached and is left to the garbage collector. Contexts of keys without
+ * pooled contexts are dropped right after their operation.
+ * </p>
+ */
+public final class OffHeapKeyStore implements Closeable {
+
+  /**
+   * Bit of the entry state marking an evicted entry; the remaining bits count active operations.
+   */
+  private static final int EVICTED = 1 << 31;
+
+  /**
+   * Kinds of pooled contexts.
+   */
+  private static final int MAC = 0;
+  private static final int ENCRYPTOR = 1;
+  private static final int DECRYPTOR = 2;
+
+  /**
+   * Off-heap memory of the key material.
+   */
+  private final KeyMemory memory = new KeyMemory();
+
+  /**
+   * Stored keys by id.
+   */
+  private final ConcurrentHashMap<String, Entry> entries;
+
+  /**
+   * Maximum number of pooled contexts per key and algorithm.
+   */
+  private final int contextsPerKey;
+
+  /**
+   * Keys holding pooled contexts, scanned by the CLOCK hand; empty if pooling is disabled.
+   */
+  private final AtomicReferenceArray<Entry> pooledKeys;
+
+  /**
+   * CLOCK hand, the next slot of {@link #pooledKeys} considered for replacement.
+   */
+  private final AtomicInteger hand = new AtomicInteger();
+
+  /**
+   * Create a key store.
+   *
+   * @param expectedKeys   the expected number of keys, used to size the lookup table
+   * @param contextsPerKey the maximum number of pooled contexts per key and algorithm, usually the
+   *                       number of threads using a single key concurrently
+   * @param pooledKeys     the maximum number of keys holding pooled contexts, or 0 to create and
+   *                       drop a context for every operation
+   */
+  public OffHeapKeyStore(int expectedKeys, int contextsPerKey, int pooledKeys) {
+    if (contextsPerKey < 1 || pooledKeys < 0) {
+      throw new IllegalArgumentException("Invalid context pool limits");
+    }
+
+    this.entries = new ConcurrentHashMap<>(expectedKeys);
+    this.contextsPerKey = contextsPerKey;
+    this.pooledKeys = new AtomicReferenceArray<>(pooledKeys);
+  }
+
+  /**
+   * Store a copy of the key material, replacing and evicting any key stored under the same id. The
+   * given array is left untouched, so the caller may wipe it afterwards.
+   *
+   * @param id        the id of the key
+   * @param key       the key material
+   * @param algorithm the key algorithm, e.g. "AES" or "HmacSHA1"
+   */
+  public void put(String id, byte[] key, String algorithm) {
+    var entry = new Entry(memory.allocate(key), key.length, algorithm);
+    var previous = entries.put(id, entry);
+
+    if (previous != null) {
+      evict(previous);
+    }
+  }
+
+  /**
+   * Check whether a key is stored under the given id.
+   *
+   * @param id the id of the key
+   * @return true if the key is stored, false otherwise
+   */
+  public boolean contains(String id) {
+    return entries.containsKey(id);
+  }
+
+  /**
+   * Evict a key. Its memory is zeroized once operations already using it complete.
+   *
+   * @param id the id of the key
+   * @return true if the key was stored, false otherwise
+   */
+  public boolean evict(String id) {
+    var entry = entries.remove(id);
+
+    if (entry == null) {
+      return false;
+    }
+
+    evict(entry);
+
+    return true;
+  }
+
+  /**
+   * Get the number of stored keys.
+   *
+   * @return the number of keys
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Get the number of off-heap bytes reserved for key material.
+   *
+   * @return the reserved bytes
+   */
+  public long reservedBytes() {
+    return memory.reserved();
+  }
+
+  /**
+   * Perform an operation with a MAC initialized with the given key. The MAC is reset and returned
+   * to the pool of the key afterwards, or dropped if the operation fails.
+   *
+   * @param id        the id of the key
+   * @param algorithm the MAC algorithm, e.g. "HmacSHA1"
+   * @param operation the operation to perform
+   * @param <R>       the type of the result
+   * @return the result of the operation
+   * @throws GeneralSecurityException if the key is not stored, the MAC cannot be created or the
+   *                                  operation fails
+   */
+  public <R> R withMac(String id, String algorithm, KeyOperation<Mac, R> operation)
+      throws GeneralSecurityException {
+    var entry = acquire(id);
+
+    try {
+      var pool = pool(entry, algorithm);
+      var context = pool == null ? null : pool.take(MAC);
+      var created = context == null;
+
+      if (created) {
+        context = new Context(Mac.getInstance(algorithm, "BC"), materialize(entry));
+      }
+
+      var recycled = false;
+
+      try {
+        var mac = (Mac) context.primitive();
+
+        if (created) {
+          mac.init(context.key());
+        }
+
+        var result = operation.apply(mac);
+
+        mac.reset();
+        recycle(pool, MAC, context);
+        recycled = true;
+
+        return result;
+      } finally {
+        if (!recycled) {
+          context.wipe();
+        }
+      }
+    } finally {
+      release(entry);
+    }
+  }
+
+  /**
+   * Perform an operation with a cipher initialized with the given key. Pooled contexts are
+   * re-initialized on every use, which discards any input buffered by a previous operation and, for
+   * encryption without parameters, makes the provider generate a fresh IV or nonce instead of
+   * repeating the previous one. A context whose operation fails is dropped instead of pooled, and
+   * exceptions thrown by the operation reach the caller unchanged.
+   *
+   * @param id             the id of the key
+   * @param transformation the cipher transformation, e.g. "AES/ECB/NoPadding"
+   * @param mode           either {@link Cipher#ENCRYPT_MODE} or {@link Cipher#DECRYPT_MODE}
+   * @param parameters     the cipher parameters, or null if the transformation needs none
+   * @param operation      the operation to perform
+   * @param <R>            the type of the result
+   * @return the result of the operation
+   * @throws GeneralSecurityException if the key is not stored, the cipher cannot be created or the
+   *                                  operation fails
+   */
+  public <R> R withCipher(String id, String transformation, int mode,
+      AlgorithmParameterSpec parameters, KeyOperation<Cipher, R> operation)
+      throws GeneralSecurityException {
+    var entry = acquire(id);
+
+    try {
+      var kind = switch (mode) {
+        case Cipher.ENCRYPT_MODE -> ENCRYPTOR;
+        case Cipher.DECRYPT_MODE -> DECRYPTOR;
+        default -> throw new IllegalArgumentException("Unsupported cipher mode: " + mode);
+      };
+      var pool = pool(entry, transformation);
+      var context = pool == null ? null : pool.take(kind);
+      var created = context == null;
+
+      if (created) {
+        context = new Context(Cipher.getInstance(transformation, "BC"), materialize(entry));
+      }
+
+      var recycled = false;
+
+      try {
+        var cipher = (Cipher) context.primitive();
+
+        try {
+          cipher.init(mode, context.key(), parameters);
+        } catch (IllegalStateException e) {
+          // Thrown by providers for misused contexts, e.g. a GCM cipher repeating its nonce
+          throw new GeneralSecurityException("Cipher context cannot be used: " + e.getMessage(), e);
+        }
+
+        var result = operation.apply(cipher);
+
+        recycle(pool, kind, context);
+        recycled = true;
+
+        return result;
+      } finally {
+        if (!recycled) {
+          context.wipe();
+        }
+      }
+    } finally {
+      release(entry);
+    }
+  }
+
+  /**
+   * Evict all keys and zeroize all off-heap memory. Operations must not be running concurrently.
+   */
+  @Override
+  public void close() {
+    for (var id : entries.keySet()) {
+      evict(id);
+    }
+
+    for (var i = 0; i < pooledKeys.length(); i++) {
+      pooledKeys.set(i, null);
+    }
+
+    memory.clear();
+  }
+
+  /**
+   * Look up an entry and register an operation on it.
+   *
+   * @param id the id of the key
+   * @return the entry
+   * @throws InvalidKeyException if no key is stored under the id
+   */
+  private Entry acquire(String id) throws InvalidKeyException {
+    var entry = entries.get(id);
+
+    if (entry != null) {
+      var state = entry.state.get();
+
+      while ((state & EVICTED) == 0) {
+        if (entry.state.compareAndSet(state, state + 1)) {
+          return entry;
+        }
+
+        state = entry.state.get();
+      }
+    }
+
+    throw new InvalidKeyException("Unknown key: " + id);
+  }
+
+  /**
+   * Unregister an operation, zeroizing the entry if it was evicted meanwhile.
+   *
+   * @param entry the entry
+   */
+  private void release(Entry entry) {
+    if (entry.state.decrementAndGet() == EVICTED) {
+      destroy(entry);
+    }
+  }
+
+  /**
+   * Mark an entry evicted, zeroizing it right away if no operation uses it.
+   *
+   * @param entry the entry
+   */
+  private void evict(Entry entry) {
+    var state = entry.state.getAndUpdate(value -> value | EVICTED);
+
+    if (state == 0) {
+      destroy(entry);
+    }
+  }
+
+  /**
+   * Zeroize the key material of an entry and drop its contexts.
+   *
+   * @param entry the entry
+   */
+  private void destroy(Entry entry) {
+    memory.free(entry.handle, entry.length);
+
+    drop(entry);
+  }
+
+  /**
+   * Drop and wipe the pooled contexts of an entry.
+   *
+   * @param entry the entry
+   */
+  private static void drop(Entry entry) {
+    ConcurrentHashMap<String, Pool> contexts;
+
+    synchronized (entry) {
+      contexts = entry.contexts;
+      entry.contexts = null;
+    }
+
+    if (contexts != null) {
+      contexts.values().forEach(Pool::close);
+    }
+  }
+
+  /**
+   * Get the context pool of an entry for the given algorithm or transformation, making room for
+   * the entry among the keys holding pooled contexts if it holds none yet.
+   *
+   * @param entry the entry
+   * @param name  the algorithm or transformation
+   * @return the pool, or null if pooling is disabled
+   */
+  private Pool pool(Entry entry, String name) {
+    if (pooledKeys.length() == 0) {
+      return null;
+    }
+
+    if (!entry.referenced) {
+      entry.referenced = true;
+    }
+
+    var contexts = entry.contexts;
+
+    if (contexts == null) {
+      var admitted = false;
+
+      synchronized (entry) {
+        contexts = entry.contexts;
+
+        if (contexts == null) {
+          contexts = new ConcurrentHashMap<>(2);
+          entry.contexts = contexts;
+          admitted = true;
+        }
+      }
+
+      if (admitted) {
+        admit(entry);
+      }
+    }
+
+    var pool = contexts.get(name);
+
+    if (pool == null) {
+      pool = contexts.computeIfAbsent(name, ignored -> new Pool(contextsPerKey));
+    }
+
+    if (entry.contexts != contexts) {
+      // The contexts were dropped meanwhile and the pool may have been missed, so close it here
+      pool.close();
+    }
+
+    return pool;
+  }
+
+  /**
+   * Register an entry among the keys holding pooled contexts, dropping the contexts of the first
+   * key the CLOCK hand finds not used since its last pass.
+   *
+   * @param entry the entry
+   */
+  private void admit(Entry entry) {
+    var slots = pooledKeys.length();
+
+    for (var step = 0; ; step++) {
+      var index = Math.floorMod(hand.getAndIncrement(), slots);
+      var current = pooledKeys.get(index);
+
+      // Recently used keys get a second chance, but after a full round any key is replaced
+      if (current != null && current.referenced && step < slots) {
+        current.referenced = false;
+
+        continue;
+      }
+
+      if (pooledKeys.compareAndSet(index, current, entry)) {
+        if (current != null && current != entry) {
+          drop(current);
+        }
+
+        return;
+      }
+    }
+  }
+
+  /**
+   * Return a context to its pool, or wipe it if there is no pool or the pool is full or closed.
+   *
+   * @param pool    the pool, or null if pooling is disabled
+   * @param kind    the kind of the context
+   * @param context the context
+   */
+  private static void recycle(Pool pool, int kind, Context context) {
+    if (pool == null) {
+      context.wipe();
+    } else {
+      pool.offer(kind, context);
+    }
+  }
+
+  /**
+   * Copy the key material of an entry into a key object owned by a single context.
+   *
+   * @param entry the entry
+   * @return the key
+   */
+  private HeapKey materialize(Entry entry) {
+    var key = new byte[entry.length];
+
+    memory.read(entry.handle, key);
+
+    return new HeapKey(key, entry.algorithm);
+  }
+
+  /**
+   * Initialized primitive together with the key it was initialized with.
+   *
+   * @param primitive the primitive
+   * @param key       the key
+   */
+  private record Context(Object primitive, HeapKey key) {
+
+    /**
+     * Overwrite the key state of the primitive with an all-zero key and zeroize the key copy.
+     */
+    private void wipe() {
+      var zero = new SecretKeySpec(new byte[Math.max(1, key.length())], key.getAlgorithm());
+
+      try {
+        if (primitive instanceof Mac mac) {
+          mac.init(zero);
+        } else {
+          ((Cipher) primitive).init(Cipher.ENCRYPT_MODE, zero);
+        }
+      } catch (GeneralSecurityException | RuntimeException ignored) {
+        // Best effort, the primitive becomes unreachable either way
+      }
+
+      key.destroy();
+    }
+  }
+
+  /**
+   * Heap copy of a key, which unlike {@link SecretKeySpec} can be zeroized.
+   */
+  private static final class HeapKey implements SecretKey {
+
+    /**
+     * Version of the serialized form.
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Key material.
+     */
+    private final byte[] material;
+
+    /**
+     * Key algorithm.
+     */
+    private final String algorithm;
+
+    /**
+     * Whether the key material was zeroized.
+     */
+    private volatile boolean destroyed;
+
+    /**
+     * Create a key taking ownership of the key material.
+     *
+     * @param material  the key material
+     * @param algorithm the key algorithm
+     */
+    private HeapKey(byte[] material, String algorithm) {
+      this.material = material;
+      this.algorithm = algorithm;
+    }
+
+    /**
+     * Get the length of the key material.
+     *
+     * @return the length in bytes
+     */
+    private int length() {
+      return material.length;
+    }
+
+    @Override
+    public String getAlgorithm() {
+      return algorithm;
+    }
+
+    @Override
+    public String getFormat() {
+      return "RAW";
+    }
+
+    @Override
+    public byte[] getEncoded() {
+      if (destroyed) {
+        throw new IllegalStateException("Key was destroyed");
+      }
+
+      return material.clone();
+    }
+
+    @Override
+    public void destroy() {
+      Arrays.fill(material, (byte) 0);
+
+      destroyed = true;
+    }
+
+    @Override
+    public boolean isDestroyed() {
+      return destroyed;
+    }
+  }
+
+  /**
+   * Bounded lock-free pool of contexts, split into a region per context kind.
+   */
+  private static final class Pool {
+
+    /**
+     * Maximum number of pooled contexts per kind.
+     */
+    private final int capacity;
+
+    /**
+     * Slots of the pool, null if empty.
+     */
+    private final AtomicReferenceArray<Context> slots;
+
+    /**
+     * Whether the pool was closed; contexts offered afterwards are wiped.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Create a pool.
+     *
+     * @param capacity the maximum number of pooled contexts per kind
+     */
+    private Pool(int capacity) {
+      this.capacity = capacity;
+      this.slots = new AtomicReferenceArray<>(capacity * 3);
+    }
+
+    /**
+     * Take a context out of the pool.
+     *
+     * @param kind the kind of the context
+     * @return the context, or null if the pool is empty
+     */
+    private Context take(int kind) {
+      for (var i = kind * capacity; i < (kind + 1) * capacity; i++) {
+        var context = slots.get(i);
+
+        if (context != null && slots.compareAndSet(i, context, null)) {
+          return context;
+        }
+      }
+
+      return null;
+    }
+
+    /**
+     * Return a context into the pool, wiping it if the pool is full or closed.
+     *
+     * @param kind    the kind of the context
+     * @param context the context
+     */
+    private void offer(int kind, Context context) {
+      if (!closed) {
+        for (var i = kind * capacity; i < (kind + 1) * capacity; i++) {
+          if (slots.get(i) == null && slots.compareAndSet(i, null, context)) {
+            // Either this or a concurrent close takes the context back out and wipes it
+            if (closed && slots.compareAndSet(i, context, null)) {
+              context.wipe();
+            }
+
+            return;
+          }
+        }
+      }
+
+      context.wipe();
+    }
+
+    /**
+     * Close the pool and wipe its contexts.
+     */
+    private void close() {
+      closed = true;
+
+      for (var i = 0; i < slots.length(); i++) {
+        var context = slots.getAndSet(i, null);
+
+        if (context != null) {
+          context.wipe();
+        }
+      }
+    }
+  }
+
+  /**
+   * Stored key.
+   */
+  private static final class Entry {
+
+    /**
+     * Handle of the off-heap slot.
+     */
+    private final long handle;
+
+    /**
+     * Length of the key material.
+     */
+    private final int length;
+
+    /**
+     * Key algorithm.
+     */
+    private final String algorithm;
+
+    /**
+     * Number of active operations and the {@link #EVICTED} bit.
+     */
+    private final AtomicInteger state = new AtomicInteger();
+
+    /**
+     * Pooled contexts by algorithm or transformation, created on first use.
+     */
+    private volatile ConcurrentHashMap<String, Pool> contexts;
+
+    /**
+     * Whether the key was used since the CLOCK hand last passed it.
+     */
+    private volatile boolean referenced;
+
+    /**
+     * Create an entry.
+     *
+     * @param handle    the handle of the off-heap slot
+     * @param length    the length of the key material
+     * @param algorithm the key algorithm
+     */
+    private Entry(long handle, int length, String algorithm) {
+      this.handle = handle;
+      this.length = length;
+      this.algorithm = algorithm;
+    }
+  }
+}
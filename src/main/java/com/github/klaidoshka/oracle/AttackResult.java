@@ -0,0 +1,23 @@
+package com.github.klaidoshka.oracle;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a padding oracle attack.
+ *
+ * @param plaintext the recovered plaintext, without padding
+ * @param blocks    the recovered blocks in ciphertext order
+ * @param elapsed   the wall time of the attack
+ */
+public record AttackResult(byte[] plaintext, List<BlockRecovery> blocks, Duration elapsed) {
+
+  /**
+   * Get the number of oracle queries spent on all blocks.
+   *
+   * @return the number of queries
+   */
+  public long queries() {
+    return blocks.stream().mapToLong(BlockRecovery::queries).sum();
+  }
+}
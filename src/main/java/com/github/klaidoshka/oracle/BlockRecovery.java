@@ -0,0 +1,15 @@
+package com.github.klaidoshka.oracle;
+
+import java.time.Duration;
+
+/**
+ * Plaintext block recovered by a padding oracle attack.
+ *
+ * @param index     the index of the block in the ciphertext
+ * @param plaintext the recovered plaintext, including padding
+ * @param queries   the number of oracle queries spent on the block
+ * @param elapsed   the wall time spent on the block
+ */
+public record BlockRecovery(int index, byte[] plaintext, long queries, Duration elapsed) {
+
+}
@@ -0,0 +1,133 @@
+package com.github.klaidoshka.oracle;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.atomic.LongAdder;
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * In-process CBC padding oracle, answering only whether a ciphertext decrypts to valid padding.
+ *
+ * <li>
+ * The cipher is initialized once with a zero IV; an attacker prepends the forged previous block to
+ * the attacked block instead of changing the IV, so no query re-initializes the cipher.
+ * </li>
+ * <li>
+ * Instances are not thread-safe; every worker uses its own {@link #copy()}, which shares the query
+ * counter.
+ * </li>
+ */
+public final class PaddingOracle {
+
+  /**
+   * Cipher transformation, a CBC mode with padding.
+   */
+  private final String transformation;
+
+  /**
+   * Secret key of the cipher.
+   */
+  private final SecretKeySpec key;
+
+  /**
+   * Cipher initialized for decryption.
+   */
+  private final Cipher cipher;
+
+  /**
+   * Output buffer reused by all queries.
+   */
+  private final byte[] output;
+
+  /**
+   * Number of queries answered by this oracle and its copies.
+   */
+  private final LongAdder queries;
+
+  /**
+   * Create an oracle.
+   *
+   * @param transformation the cipher transformation, a CBC mode with padding
+   * @param algorithm      the cipher algorithm of the key
+   * @param key            the secret key
+   * @throws GeneralSecurityException if the cipher cannot be created
+   */
+  public PaddingOracle(String transformation, String algorithm, byte[] key)
+      throws GeneralSecurityException {
+    this(transformation, new SecretKeySpec(key, algorithm), new LongAdder());
+  }
+
+  /**
+   * Create an oracle sharing a key and query counter.
+   *
+   * @param transformation the cipher transformation
+   * @param key            the secret key
+   * @param queries        the query counter
+   * @throws GeneralSecurityException if the cipher cannot be created
+   */
+  private PaddingOracle(String transformation, SecretKeySpec key, LongAdder queries)
+      throws GeneralSecurityException {
+    this.transformation = transformation;
+    this.key = key;
+    this.cipher = Cipher.getInstance(transformation);
+    this.queries = queries;
+
+    cipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(new byte[cipher.getBlockSize()]));
+
+    this.output = new byte[2 * cipher.getBlockSize()];
+  }
+
+  /**
+   * Create an oracle for another worker, with its own initialized cipher.
+   *
+   * @return the oracle
+   */
+  public PaddingOracle copy() {
+    try {
+      return new PaddingOracle(transformation, key, queries);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Could not create padding oracle", e);
+    }
+  }
+
+  /**
+   * Get the block size of the cipher.
+   *
+   * @return the block size in bytes
+   */
+  public int blockSize() {
+    return cipher.getBlockSize();
+  }
+
+  /**
+   * Get the number of queries answered by this oracle and its copies.
+   *
+   * @return the number of queries
+   */
+  public long queries() {
+    return queries.sum();
+  }
+
+  /**
+   * Check whether a two-block ciphertext, the forged previous block followed by the attacked
+   * block, decrypts to valid padding.
+   *
+   * @param blocks the two blocks
+   * @return true if the padding is valid, false otherwise
+   */
+  public boolean test(byte[] blocks) {
+    queries.increment();
+
+    try {
+      cipher.doFinal(blocks, 0, blocks.length, output);
+
+      return true;
+    } catch (BadPaddingException e) {
+      return false;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException("Ciphertext is not two blocks long", e);
+    }
+  }
+}
@@ -0,0 +1,269 @@
+package com.github.klaidoshka.oracle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CBC padding oracle attack recovering a plaintext from a padding oracle alone.
+ *
+ * <li>
+ * Blocks only depend on their own ciphertext and the previous one, so the blocks are recovered in
+ * parallel, each worker taking the next unclaimed block.
+ * </li>
+ * <li>
+ * Each worker owns a copy of the oracle with a pre-initialized cipher and a single forged
+ * two-block buffer which it rewrites in place for every candidate byte.
+ * </li>
+ */
+public final class PaddingOracleAttack implements AutoCloseable {
+
+  /**
+   * Number of candidates of a byte.
+   */
+  private static final int CANDIDATES = 256;
+
+  /**
+   * Number of workers.
+   */
+  private final int parallelism;
+
+  /**
+   * Threads of the workers.
+   */
+  private final ExecutorService workers;
+
+  /**
+   * Create an attack engine.
+   *
+   * @param parallelism the number of workers
+   */
+  public PaddingOracleAttack(int parallelism) {
+    this.parallelism = parallelism;
+    this.workers = Executors.newFixedThreadPool(parallelism, task -> {
+      var thread = new Thread(task, "padding-oracle");
+
+      thread.setDaemon(true);
+
+      return thread;
+    });
+  }
+
+  /**
+   * Recover the plaintext of a ciphertext.
+   *
+   * @param oracle     the oracle, copied for every worker
+   * @param iv         the initialization vector of the ciphertext
+   * @param ciphertext the ciphertext, a multiple of the block size
+   * @return the outcome of the attack
+   * @throws InterruptedException  if interrupted while waiting for the workers
+   * @throws IllegalStateException if the recovered plaintext does not end with valid padding, e.g.
+   *                               because the oracle does not check it
+   */
+  public AttackResult recover(PaddingOracle oracle, byte[] iv, byte[] ciphertext)
+      throws InterruptedException {
+    var blockSize = oracle.blockSize();
+
+    if (iv.length != blockSize || ciphertext.length == 0 || ciphertext.length % blockSize != 0) {
+      throw new IllegalArgumentException("Ciphertext is not a whole number of blocks");
+    }
+
+    var start = System.nanoTime();
+    var blockCount = ciphertext.length / blockSize;
+    var next = new AtomicInteger();
+    var recovered = new BlockRecovery[blockCount];
+    var tasks = new ArrayList<Future<?>>();
+
+    for (var i = 0; i < Math.min(parallelism, blockCount); i++) {
+      tasks.add(workers.submit(new Worker(oracle.copy(), iv, ciphertext, next, recovered)));
+    }
+
+    for (var task : tasks) {
+      try {
+        task.get();
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Padding oracle worker failed", e.getCause());
+      }
+    }
+
+    var padded = new byte[ciphertext.length];
+
+    for (var block : recovered) {
+      System.arraycopy(block.plaintext(), 0, padded, block.index() * blockSize, blockSize);
+    }
+
+    var padding = padded[padded.length - 1];
+
+    if (padding < 1 || padding > blockSize) {
+      throw new IllegalStateException("Recovered padding length is invalid: " + padding);
+    }
+
+    for (var i = padded.length - padding; i < padded.length; i++) {
+      if (padded[i] != padding) {
+        throw new IllegalStateException("Recovered padding is malformed at byte " + i);
+      }
+    }
+
+    return new AttackResult(
+        Arrays.copyOf(padded, padded.length - padding),
+        List.of(recovered),
+        Duration.ofNanos(System.nanoTime() - start)
+    );
+  }
+
+  /**
+   * Stop the worker threads.
+   */
+  @Override
+  public void close() {
+    workers.shutdownNow();
+  }
+
+  /**
+   * Worker recovering unclaimed blocks until none are left.
+   */
+  private static final class Worker implements Callable<Void> {
+
+    /**
+     * Oracle of this worker.
+     */
+    private final PaddingOracle oracle;
+
+    /**
+     * Initialization vector of the ciphertext.
+     */
+    private final byte[] iv;
+
+    /**
+     * Attacked ciphertext.
+     */
+    private final byte[] ciphertext;
+
+    /**
+     * Index of the next unclaimed block.
+     */
+    private final AtomicInteger next;
+
+    /**
+     * Recovered blocks, each written by the worker that claimed it.
+     */
+    private final BlockRecovery[] recovered;
+
+    /**
+     * Forged previous block followed by the attacked block, rewritten for every query.
+     */
+    private final byte[] forged;
+
+    /**
+     * Create a worker.
+     *
+     * @param oracle     the oracle of this worker
+     * @param iv         the initialization vector of the ciphertext
+     * @param ciphertext the attacked ciphertext
+     * @param next       the index of the next unclaimed block
+     * @param recovered  the recovered blocks
+     */
+    private Worker(PaddingOracle oracle, byte[] iv, byte[] ciphertext, AtomicInteger next,
+        BlockRecovery[] recovered) {
+      this.oracle = oracle;
+      this.iv = iv;
+      this.ciphertext = ciphertext;
+      this.next = next;
+      this.recovered = recovered;
+      this.forged = new byte[2 * oracle.blockSize()];
+    }
+
+    @Override
+    public Void call() {
+      for (var index = next.getAndIncrement(); index < recovered.length;
+          index = next.getAndIncrement()) {
+        recovered[index] = recover(index);
+      }
+
+      return null;
+    }
+
+    /**
+     * Recover a block byte by byte, from the last to the first.
+     *
+     * @param index the index of the block
+     * @return the recovered block
+     */
+    private BlockRecovery recover(int index) {
+      var start = System.nanoTime();
+      var blockSize = oracle.blockSize();
+      var intermediate = new byte[blockSize];
+      var queries = 0L;
+
+      Arrays.fill(forged, 0, blockSize, (byte) 0);
+      System.arraycopy(ciphertext, index * blockSize, forged, blockSize, blockSize);
+
+      for (var pad = 1; pad <= blockSize; pad++) {
+        var position = blockSize - pad;
+        var found = false;
+
+        // Make the already recovered bytes decrypt to the current padding value
+        for (var i = position + 1; i < blockSize; i++) {
+          forged[i] = (byte) (intermediate[i] ^ pad);
+        }
+
+        for (var guess = 0; guess < CANDIDATES && !found; guess++) {
+          forged[position] = (byte) guess;
+          queries++;
+
+          if (!oracle.test(forged)) {
+            continue;
+          }
+
+          if (pad == 1 && position > 0) {
+            // A valid padding longer than one byte would also be accepted, so rule it out
+            forged[position - 1] ^= 0x01;
+            queries++;
+
+            var confirmed = oracle.test(forged);
+
+            forged[position - 1] ^= 0x01;
+
+            if (!confirmed) {
+              continue;
+            }
+          }
+
+          intermediate[position] = (byte) (guess ^ pad);
+          found = true;
+        }
+
+        if (!found) {
+          throw new IllegalStateException(
+              "Oracle accepted no candidate for byte %d of block %d".formatted(position, index)
+          );
+        }
+      }
+
+      var previous = index == 0 ? iv : Arrays.copyOfRange(
+          ciphertext,
+          (index - 1) * blockSize,
+          index * blockSize
+      );
+      var plaintext = new byte[blockSize];
+
+      for (var i = 0; i < blockSize; i++) {
+        plaintext[i] = (byte) (intermediate[i] ^ previous[i]);
+      }
+
+      return new BlockRecovery(
+          index,
+          plaintext,
+          queries,
+          Duration.ofNanos(System.nanoTime() - start)
+      );
+    }
+  }
+}
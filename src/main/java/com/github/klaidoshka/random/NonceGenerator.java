@@ -0,0 +1,150 @@
+package com.github.klaidoshka.random;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generator of unique nonces made of a random prefix followed by a message counter.
+ *
+ * <li>
+ * The prefix is drawn once per generator, so independent generators are unlikely to collide.
+ * </li>
+ * <li>
+ * The counter never repeats within a generator; the generator refuses to wrap it around.
+ * </li>
+ * <li>
+ * Trailing zero bytes are left for the block counter of modes such as CTR. A message must not
+ * outgrow that counter, see {@link Layout#maxBlocks()}.
+ * </li>
+ */
+public final class NonceGenerator {
+
+  /**
+   * Layout of the nonces.
+   */
+  private final Layout layout;
+
+  /**
+   * Random prefix of every nonce.
+   */
+  private final byte[] prefix;
+
+  /**
+   * Value of the next message counter.
+   */
+  private final AtomicLong counter = new AtomicLong();
+
+  /**
+   * All-ones counter value of the layout, reserved to mark an exhausted generator.
+   */
+  private final long limit;
+
+  /**
+   * Create a generator.
+   *
+   * @param layout the layout of the nonces
+   * @param prefix the random prefix, as long as the prefix of the layout
+   */
+  NonceGenerator(Layout layout, byte[] prefix) {
+    this.layout = layout;
+    this.prefix = prefix.clone();
+    this.limit = layout.counterLength() == Long.BYTES
+        ? -1L
+        : (1L << (layout.counterLength() * 8)) - 1;
+  }
+
+  /**
+   * Generate the next nonce.
+   *
+   * @return the nonce
+   * @throws IllegalStateException if the counter space of the generator is exhausted
+   */
+  public byte[] next() {
+    var nonce = new byte[layout.length()];
+
+    next(nonce, 0);
+
+    return nonce;
+  }
+
+  /**
+   * Write the next nonce into the given array.
+   *
+   * @param nonce  the array to write into
+   * @param offset the position of the nonce in the array
+   * @throws IllegalStateException if the counter space of the generator is exhausted
+   */
+  public void next(byte[] nonce, int offset) {
+    // Stops at the limit instead of incrementing past it, so the counter never moves backwards
+    var value = counter.getAndUpdate(current -> current == limit ? current : current + 1);
+
+    if (value == limit) {
+      throw new IllegalStateException("Nonce counter exhausted, use a new generator");
+    }
+
+    System.arraycopy(prefix, 0, nonce, offset, prefix.length);
+
+    var end = offset + prefix.length + layout.counterLength();
+
+    for (var i = end - 1; i >= offset + prefix.length; i--) {
+      nonce[i] = (byte) value;
+      value >>>= 8;
+    }
+
+    for (var i = end; i < offset + layout.length(); i++) {
+      nonce[i] = 0;
+    }
+  }
+
+  /**
+   * Layout of a nonce: random prefix, big-endian message counter and zeroed block counter.
+   *
+   * @param prefixLength  the length of the random prefix in bytes
+   * @param counterLength the length of the message counter in bytes, at most 8
+   * @param blockLength   the length of the trailing block counter in bytes, at most 8
+   */
+  public record Layout(int prefixLength, int counterLength, int blockLength) {
+
+    /**
+     * Layout of 96-bit GCM nonces: 32-bit random prefix and 64-bit message counter.
+     */
+    public static final Layout GCM = new Layout(4, 8, 0);
+
+    /**
+     * Layout of 128-bit CTR IVs: 32-bit random prefix, 64-bit message counter and 32-bit block
+     * counter starting at zero, so a message may be at most 2^32 blocks (64 GiB for AES) long.
+     */
+    public static final Layout CTR = new Layout(4, 8, 4);
+
+    /**
+     * Validate the layout.
+     */
+    public Layout {
+      if (prefixLength < 0 || counterLength <= 0 || counterLength > Long.BYTES || blockLength < 0
+          || blockLength > Long.BYTES) {
+        throw new IllegalArgumentException("Invalid nonce layout");
+      }
+    }
+
+    /**
+     * Get the total length of a nonce.
+     *
+     * @return the length in bytes
+     */
+    public int length() {
+      return prefixLength + counterLength + blockLength;
+    }
+
+    /**
+     * Get the number of cipher blocks a single nonce may cover. Past it, the block counter carries
+     * into the message counter and the keystream overlaps the one of the next nonce. Layouts
+     * without a block counter leave the limit to the mode, e.g. 2^32 - 2 blocks for GCM.
+     *
+     * @return the number of blocks, or {@link Long#MAX_VALUE} if the layout does not limit it
+     */
+    public long maxBlocks() {
+      return blockLength == 0 || blockLength == Long.BYTES
+          ? Long.MAX_VALUE
+          : 1L << (blockLength * 8);
+    }
+  }
+}
@@ -0,0 +1,218 @@
+package com.github.klaidoshka.random;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DrbgParameters;
+import java.security.DrbgParameters.Capability;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Randomness service handing out keys and IVs from per-thread DRBG instances.
+ *
+ * <li>
+ * Every thread owns a DRBG personalized with its own stream id, so threads never contend on a
+ * shared generator.
+ * </li>
+ * <li>
+ * Random bytes are generated in bulk into a per-thread buffer and handed out from it, which
+ * amortizes the per-call cost of the DRBG for small requests such as IVs.
+ * </li>
+ */
+public final class RandomService {
+
+  /**
+   * Algorithm of the generators.
+   */
+  private static final String ALGORITHM = "DRBG";
+
+  /**
+   * Security strength of the generators in bits.
+   */
+  private static final int STRENGTH = 256;
+
+  /**
+   * Size of the per-thread prefetch buffer.
+   */
+  private final int bufferSize;
+
+  /**
+   * Source of the stream ids used to personalize the generators.
+   */
+  private final AtomicInteger streams = new AtomicInteger();
+
+  /**
+   * Generator and prefetch buffer of each thread.
+   */
+  private final ThreadLocal<Stream> stream = ThreadLocal.withInitial(this::createStream);
+
+  /**
+   * Create a service.
+   *
+   * @param bufferSize the number of random bytes prefetched per thread
+   */
+  public RandomService(int bufferSize) {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Buffer size must be positive");
+    }
+
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * Fill the given array with random bytes.
+   *
+   * @param bytes the array to fill
+   */
+  public void nextBytes(byte[] bytes) {
+    nextBytes(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Fill a range of the given array with random bytes.
+   *
+   * @param bytes  the array to fill
+   * @param offset the start of the range
+   * @param length the length of the range
+   */
+  public void nextBytes(byte[] bytes, int offset, int length) {
+    var stream = this.stream.get();
+
+    // Whole arrays larger than the buffer skip it, copying would only add work
+    if (length >= bufferSize && offset == 0 && length == bytes.length) {
+      stream.random.nextBytes(bytes);
+
+      return;
+    }
+
+    stream.read(bytes, offset, length);
+  }
+
+  /**
+   * Generate a fresh key.
+   *
+   * @param length the length of the key in bytes
+   * @return the key material
+   */
+  public byte[] nextKey(int length) {
+    var key = new byte[length];
+
+    nextBytes(key);
+
+    return key;
+  }
+
+  /**
+   * Generate a fresh random IV, e.g. for CBC mode.
+   *
+   * @param length the length of the IV in bytes, usually the block size
+   * @return the IV
+   */
+  public byte[] nextIv(int length) {
+    return nextKey(length);
+  }
+
+  /**
+   * Create a nonce generator with a random prefix drawn from this service.
+   *
+   * @param layout the layout of the nonces
+   * @return the nonce generator
+   */
+  public NonceGenerator nonceGenerator(NonceGenerator.Layout layout) {
+    var prefix = new byte[layout.prefixLength()];
+
+    nextBytes(prefix);
+
+    return new NonceGenerator(layout, prefix);
+  }
+
+  /**
+   * Create the generator and buffer of the current thread.
+   *
+   * @return the stream of the thread
+   */
+  private Stream createStream() {
+    var personalization = "%s/%d/%d".formatted(
+        RandomService.class.getName(),
+        System.identityHashCode(this),
+        streams.incrementAndGet()
+    );
+
+    try {
+      return new Stream(
+          SecureRandom.getInstance(
+              ALGORITHM,
+              DrbgParameters.instantiation(
+                  STRENGTH,
+                  Capability.RESEED_ONLY,
+                  personalization.getBytes(StandardCharsets.UTF_8)
+              )
+          ),
+          new byte[bufferSize]
+      );
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Could not create " + ALGORITHM + " generator", e);
+    }
+  }
+
+  /**
+   * Generator of a single thread together with its prefetched bytes.
+   */
+  private static final class Stream {
+
+    /**
+     * Generator of the thread.
+     */
+    private final SecureRandom random;
+
+    /**
+     * Prefetched random bytes.
+     */
+    private final byte[] buffer;
+
+    /**
+     * Position of the next unused byte in the buffer.
+     */
+    private int position;
+
+    /**
+     * Create a stream with an exhausted buffer.
+     *
+     * @param random the generator
+     * @param buffer the prefetch buffer
+     */
+    private Stream(SecureRandom random, byte[] buffer) {
+      this.random = random;
+      this.buffer = buffer;
+      this.position = buffer.length;
+    }
+
+    /**
+     * Copy prefetched bytes into the given range, refilling the buffer when it runs out.
+     * Consumed bytes are wiped from the buffer so that they cannot be handed out twice.
+     *
+     * @param bytes  the array to fill
+     * @param offset the start of the range
+     * @param length the length of the range
+     */
+    private void read(byte[] bytes, int offset, int length) {
+      while (length > 0) {
+        if (position == buffer.length) {
+          random.nextBytes(buffer);
+
+          position = 0;
+        }
+
+        var count = Math.min(length, buffer.length - position);
+
+        System.arraycopy(buffer, position, bytes, offset, count);
+        Arrays.fill(buffer, position, position + count, (byte) 0);
+
+        position += count;
+        offset += count;
+        length -= count;
+      }
+    }
+  }
+}
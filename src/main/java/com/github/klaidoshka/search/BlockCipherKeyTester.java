@@ -0,0 +1,87 @@
+package com.github.klaidoshka.search;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import org.bouncycastle.crypto.BlockCipher;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+/**
+ * Tester of block cipher keys against a known plaintext and ciphertext block.
+ *
+ * <li>
+ * For CBC, the known plaintext is the first plaintext block XOR-ed with the IV.
+ * </li>
+ * <li>
+ * The key parameter is created once and its key array rewritten for every candidate; whether
+ * re-keying the engine allocates depends on its key schedule (xTEA does not, AES does).
+ * </li>
+ */
+public final class BlockCipherKeyTester implements KeyTester {
+
+  /**
+   * Creator of the engines, one per tester.
+   */
+  private final Supplier<BlockCipher> engines;
+
+  /**
+   * Engine of this tester.
+   */
+  private final BlockCipher engine;
+
+  /**
+   * Key parameter whose key array is rewritten for every candidate.
+   */
+  private final KeyParameter parameter;
+
+  /**
+   * Known plaintext block.
+   */
+  private final byte[] plaintext;
+
+  /**
+   * Known ciphertext block.
+   */
+  private final byte[] ciphertext;
+
+  /**
+   * Output buffer reused for every candidate.
+   */
+  private final byte[] output;
+
+  /**
+   * Create a tester.
+   *
+   * @param engines    the creator of the engines, e.g. {@code XTEAEngine::new}
+   * @param keyLength  the length of the keys in bytes
+   * @param plaintext  the known plaintext block
+   * @param ciphertext the known ciphertext block
+   */
+  public BlockCipherKeyTester(Supplier<BlockCipher> engines, int keyLength, byte[] plaintext,
+      byte[] ciphertext) {
+    this.engines = engines;
+    this.engine = engines.get();
+    this.parameter = new KeyParameter(new byte[keyLength]);
+    this.plaintext = plaintext;
+    this.ciphertext = ciphertext;
+    this.output = new byte[engine.getBlockSize()];
+
+    if (plaintext.length != output.length || ciphertext.length != output.length) {
+      throw new IllegalArgumentException("Known blocks must be exactly one block long");
+    }
+  }
+
+  @Override
+  public boolean test(byte[] candidate) {
+    System.arraycopy(candidate, 0, parameter.getKey(), 0, candidate.length);
+
+    engine.init(true, parameter);
+    engine.processBlock(plaintext, 0, output, 0);
+
+    return Arrays.equals(output, ciphertext);
+  }
+
+  @Override
+  public KeyTester copy() {
+    return new BlockCipherKeyTester(engines, parameter.getKeyLength(), plaintext, ciphertext);
+  }
+}
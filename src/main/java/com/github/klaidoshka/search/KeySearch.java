@@ -0,0 +1,176 @@
+package com.github.klaidoshka.search;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exhaustive search engine over a reduced keyspace.
+ *
+ * <li>
+ * The keyspace is split into one contiguous range per worker up front, so workers never
+ * coordinate while enumerating.
+ * </li>
+ * <li>
+ * Each worker owns a copy of the tester and a single candidate buffer which it rewrites in place.
+ * </li>
+ * <li>
+ * The first match is published and the other workers stop at their next check.
+ * </li>
+ */
+public final class KeySearch implements AutoCloseable {
+
+  /**
+   * Number of candidates tested between two checks for a match found by another worker.
+   */
+  private static final int CHECK_INTERVAL = 1024;
+
+  /**
+   * Number of workers.
+   */
+  private final int parallelism;
+
+  /**
+   * Threads of the workers.
+   */
+  private final ExecutorService workers;
+
+  /**
+   * Create a search engine.
+   *
+   * @param parallelism the number of workers
+   */
+  public KeySearch(int parallelism) {
+    this.parallelism = parallelism;
+    this.workers = Executors.newFixedThreadPool(parallelism, task -> {
+      var thread = new Thread(task, "key-search");
+
+      thread.setDaemon(true);
+
+      return thread;
+    });
+  }
+
+  /**
+   * Search a keyspace for the key accepted by the tester.
+   *
+   * @param space  the keyspace
+   * @param tester the tester, copied for every worker
+   * @return the outcome of the search
+   * @throws InterruptedException if interrupted while waiting for the workers
+   */
+  public SearchResult search(KeySpace space, KeyTester tester) throws InterruptedException {
+    var start = System.nanoTime();
+    var match = new AtomicReference<byte[]>();
+    var size = space.size();
+    var workerCount = (int) Math.min(parallelism, size);
+    var tasks = new ArrayList<Future<Long>>(workerCount);
+
+    for (var i = 0; i < workerCount; i++) {
+      var from = size / workerCount * i;
+      var to = i == workerCount - 1 ? size : size / workerCount * (i + 1);
+
+      tasks.add(workers.submit(new Worker(space, tester.copy(), from, to, match)));
+    }
+
+    var tested = 0L;
+
+    for (var task : tasks) {
+      try {
+        tested += task.get();
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Key search worker failed", e.getCause());
+      }
+    }
+
+    return new SearchResult(match.get(), tested, Duration.ofNanos(System.nanoTime() - start));
+  }
+
+  /**
+   * Stop the worker threads.
+   */
+  @Override
+  public void close() {
+    workers.shutdownNow();
+  }
+
+  /**
+   * Worker enumerating a range of the keyspace.
+   */
+  private static final class Worker implements Callable<Long> {
+
+    /**
+     * Searched keyspace.
+     */
+    private final KeySpace space;
+
+    /**
+     * Tester of this worker.
+     */
+    private final KeyTester tester;
+
+    /**
+     * First candidate index of the range.
+     */
+    private final long from;
+
+    /**
+     * Candidate index after the range.
+     */
+    private final long to;
+
+    /**
+     * Matching key published by the worker that finds it.
+     */
+    private final AtomicReference<byte[]> match;
+
+    /**
+     * Create a worker.
+     *
+     * @param space  the searched keyspace
+     * @param tester the tester of this worker
+     * @param from   the first candidate index of the range
+     * @param to     the candidate index after the range
+     * @param match  the matching key published by the worker that finds it
+     */
+    private Worker(KeySpace space, KeyTester tester, long from, long to,
+        AtomicReference<byte[]> match) {
+      this.space = space;
+      this.tester = tester;
+      this.from = from;
+      this.to = to;
+      this.match = match;
+    }
+
+    @Override
+    public Long call() {
+      var candidate = space.newCandidate();
+      var index = from;
+
+      while (index < to) {
+        if (match.get() != null) {
+          break;
+        }
+
+        var end = Math.min(to, index + CHECK_INTERVAL);
+
+        for (; index < end; index++) {
+          space.write(candidate, index);
+
+          if (tester.test(candidate)) {
+            match.compareAndSet(null, candidate.clone());
+
+            return index - from + 1;
+          }
+        }
+      }
+
+      return index - from;
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.github.klaidoshka.search;
+
+/**
+ * Keyspace of a partially known key whose lowest bits are unknown.
+ */
+public final class KeySpace {
+
+  /**
+   * Largest supported number of unknown bits.
+   */
+  public static final int MAX_UNKNOWN_BITS = 62;
+
+  /**
+   * Known part of the key, with the unknown bits cleared.
+   */
+  private final byte[] known;
+
+  /**
+   * Number of unknown bits at the end of the key.
+   */
+  private final int unknownBits;
+
+  /**
+   * Create a keyspace.
+   *
+   * @param key         the key, whose last {@code unknownBits} bits are ignored
+   * @param unknownBits the number of unknown bits at the end of the key
+   */
+  public KeySpace(byte[] key, int unknownBits) {
+    if (unknownBits < 0 || unknownBits > Math.min(MAX_UNKNOWN_BITS, key.length * 8)) {
+      throw new IllegalArgumentException("Invalid number of unknown bits: " + unknownBits);
+    }
+
+    this.known = key.clone();
+    this.unknownBits = unknownBits;
+
+    // Clear the unknown bits so that the search cannot cheat
+    write(known, 0);
+  }
+
+  /**
+   * Get the number of unknown bits.
+   *
+   * @return the number of unknown bits
+   */
+  public int getUnknownBits() {
+    return unknownBits;
+  }
+
+  /**
+   * Get the number of candidate keys.
+   *
+   * @return the size of the keyspace
+   */
+  public long size() {
+    return 1L << unknownBits;
+  }
+
+  /**
+   * Create a new candidate buffer holding the known part of the key.
+   *
+   * @return the candidate buffer
+   */
+  public byte[] newCandidate() {
+    return known.clone();
+  }
+
+  /**
+   * Write a candidate index into the unknown bits of a candidate buffer in place.
+   *
+   * @param candidate the candidate buffer created by {@link #newCandidate()}
+   * @param index     the index of the candidate, below {@link #size()}
+   */
+  public void write(byte[] candidate, long index) {
+    var bits = unknownBits;
+
+    for (var i = candidate.length - 1; bits > 0; i--) {
+      var mask = bits >= 8 ? 0xFF : (1 << bits) - 1;
+
+      candidate[i] = (byte) ((known[i] & ~mask) | (index & mask));
+      index >>>= 8;
+      bits -= 8;
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.github.klaidoshka.search;
+
+/**
+ * Check of candidate keys against a known input/output pair. Testers are stateful and used by a
+ * single search worker each; workers obtain their own tester through {@link #copy()}.
+ */
+public interface KeyTester {
+
+  /**
+   * Check whether a candidate key reproduces the known output.
+   *
+   * @param candidate the candidate key; it is mutated by the search afterwards and must not be
+   *                  retained
+   * @return true if the key matches, false otherwise
+   */
+  boolean test(byte[] candidate);
+
+  /**
+   * Create an independent tester for another worker, cloning the pre-initialized primitives.
+   *
+   * @return the tester
+   */
+  KeyTester copy();
+}
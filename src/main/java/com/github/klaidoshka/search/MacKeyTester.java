@@ -0,0 +1,107 @@
+package com.github.klaidoshka.search;
+
+import java.util.Arrays;
+import org.bouncycastle.crypto.ExtendedDigest;
+import org.bouncycastle.util.Memoable;
+
+/**
+ * Tester of HMAC keys against a known text and MAC.
+ *
+ * <p>
+ * HMAC is computed directly on a cloned digest with reused pad buffers, since keying a JCA
+ * {@link javax.crypto.Mac} or a BC {@link org.bouncycastle.crypto.macs.HMac} copies the key into a
+ * new object for every candidate.
+ * </p>
+ */
+public final class MacKeyTester implements KeyTester {
+
+  /**
+   * Inner padding byte of HMAC.
+   */
+  private static final byte IPAD = 0x36;
+
+  /**
+   * Outer padding byte of HMAC.
+   */
+  private static final byte OPAD = 0x5C;
+
+  /**
+   * Digest of this tester, must implement {@link Memoable}.
+   */
+  private final ExtendedDigest digest;
+
+  /**
+   * Known text.
+   */
+  private final byte[] text;
+
+  /**
+   * Known MAC of the text.
+   */
+  private final byte[] mac;
+
+  /**
+   * Buffers reused for every candidate.
+   */
+  private final byte[] innerPad;
+  private final byte[] outerPad;
+  private final byte[] inner;
+  private final byte[] outer;
+
+  /**
+   * Create a tester.
+   *
+   * @param digest the digest of the HMAC, e.g. {@link org.bouncycastle.crypto.digests.SHA1Digest}
+   * @param text   the known text
+   * @param mac    the known MAC of the text
+   */
+  public MacKeyTester(ExtendedDigest digest, byte[] text, byte[] mac) {
+    if (!(digest instanceof Memoable)) {
+      throw new IllegalArgumentException("Digest cannot be cloned: " + digest.getAlgorithmName());
+    }
+
+    this.digest = digest;
+    this.text = text;
+    this.mac = mac;
+    this.innerPad = new byte[digest.getByteLength()];
+    this.outerPad = new byte[digest.getByteLength()];
+    this.inner = new byte[digest.getDigestSize()];
+    this.outer = new byte[digest.getDigestSize()];
+  }
+
+  @Override
+  public boolean test(byte[] candidate) {
+    var key = candidate;
+    var length = candidate.length;
+
+    // Keys longer than a block are replaced by their digest, as HMAC specifies
+    if (length > innerPad.length) {
+      digest.update(candidate, 0, length);
+      digest.doFinal(inner, 0);
+
+      key = inner;
+      length = inner.length;
+    }
+
+    for (var i = 0; i < innerPad.length; i++) {
+      var value = i < length ? key[i] : 0;
+
+      innerPad[i] = (byte) (value ^ IPAD);
+      outerPad[i] = (byte) (value ^ OPAD);
+    }
+
+    digest.update(innerPad, 0, innerPad.length);
+    digest.update(text, 0, text.length);
+    digest.doFinal(inner, 0);
+    digest.update(outerPad, 0, outerPad.length);
+    digest.update(inner, 0, inner.length);
+    digest.doFinal(outer, 0);
+
+    return Arrays.equals(outer, mac);
+  }
+
+  @Override
+  public KeyTester copy() {
+    return new MacKeyTester((ExtendedDigest) ((Memoable) digest).copy(), text, mac);
+  }
+}
@@ -0,0 +1,31 @@
+package com.github.klaidoshka.search;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a keyspace search.
+ *
+ * @param key     the matching key, or null if the keyspace holds no match
+ * @param tested  the number of candidates tested by all workers
+ * @param elapsed the wall time of the search
+ */
+public record SearchResult(byte[] key, long tested, Duration elapsed) {
+
+  /**
+   * Check whether a matching key was found.
+   *
+   * @return true if a key was found, false otherwise
+   */
+  public boolean found() {
+    return key != null;
+  }
+
+  /**
+   * Get the number of tested candidates per second.
+   *
+   * @return the search rate
+   */
+  public double keysPerSecond() {
+    return tested / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+  }
+}
@@ -0,0 +1,187 @@
+package com.github.klaidoshka.signature;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Verifier of signature batches spread across a pool of worker threads.
+ *
+ * <li>
+ * Every worker keeps one {@link Signature} and {@link KeyFactory} instance per scheme and reuses
+ * them for all messages it verifies.
+ * </li>
+ * <li>
+ * Decoded public keys are cached by their encoding, so a signer's key is decoded once rather than
+ * once per message.
+ * </li>
+ * <li>
+ * Malformed keys or signatures make the message fail verification instead of the whole batch.
+ * </li>
+ */
+public final class BatchVerifier implements AutoCloseable {
+
+  /**
+   * Number of schemes, used to size the per-thread instance arrays.
+   */
+  private static final int SCHEMES = SignatureScheme.values().length;
+
+  /**
+   * Pool verifying the batches.
+   */
+  private final ForkJoinPool pool;
+
+  /**
+   * Maximum number of cached public keys.
+   */
+  private final int keyCacheSize;
+
+  /**
+   * Decoded public keys by their encoding.
+   */
+  private final ConcurrentHashMap<ByteBuffer, PublicKey> keys = new ConcurrentHashMap<>();
+
+  /**
+   * Signature instances of each thread, indexed by scheme ordinal.
+   */
+  private final ThreadLocal<Signature[]> signatures = ThreadLocal.withInitial(
+      () -> new Signature[SCHEMES]
+  );
+
+  /**
+   * Key factories of each thread, indexed by scheme ordinal.
+   */
+  private final ThreadLocal<KeyFactory[]> keyFactories = ThreadLocal.withInitial(
+      () -> new KeyFactory[SCHEMES]
+  );
+
+  /**
+   * Create a verifier.
+   *
+   * @param parallelism  the number of worker threads
+   * @param keyCacheSize the maximum number of cached public keys
+   */
+  public BatchVerifier(int parallelism, int keyCacheSize) {
+    this.pool = new ForkJoinPool(parallelism);
+    this.keyCacheSize = keyCacheSize;
+  }
+
+  /**
+   * Verify a batch of messages in parallel.
+   *
+   * @param batch the messages to verify
+   * @return the verification result of each message, in the order of the batch
+   */
+  public boolean[] verifyAll(List<SignedMessage> batch) {
+    var results = new boolean[batch.size()];
+
+    pool
+        .submit(() -> IntStream
+            .range(0, results.length)
+            .parallel()
+            .forEach(i -> results[i] = verify(batch.get(i)))
+        )
+        .join();
+
+    return results;
+  }
+
+  /**
+   * Verify a single message on the calling thread. Malformed keys and signatures make the message
+   * fail verification, never the caller.
+   *
+   * @param message the message to verify
+   * @return true if the signature is valid, false otherwise
+   */
+  public boolean verify(SignedMessage message) {
+    try {
+      var signature = signature(message.scheme());
+
+      signature.initVerify(publicKey(message.scheme(), message.publicKey()));
+      signature.update(message.message());
+
+      return signature.verify(message.signature());
+    } catch (GeneralSecurityException | RuntimeException e) {
+      // BC throws unchecked exceptions for some malformed encodings, e.g. truncated Ed25519 keys
+      return false;
+    }
+  }
+
+  /**
+   * Get the number of cached public keys.
+   *
+   * @return the number of keys
+   */
+  public int cachedKeys() {
+    return keys.size();
+  }
+
+  /**
+   * Stop the worker threads.
+   */
+  @Override
+  public void close() {
+    pool.shutdown();
+  }
+
+  /**
+   * Get the signature instance of the current thread for a scheme.
+   *
+   * @param scheme the scheme
+   * @return the signature instance
+   * @throws GeneralSecurityException if the algorithm is not available
+   */
+  private Signature signature(SignatureScheme scheme) throws GeneralSecurityException {
+    var instances = signatures.get();
+    var signature = instances[scheme.ordinal()];
+
+    if (signature == null) {
+      signature = Signature.getInstance(scheme.getSignatureAlgorithm(), "BC");
+      instances[scheme.ordinal()] = signature;
+    }
+
+    return signature;
+  }
+
+  /**
+   * Get the decoded public key, decoding and caching it on first use.
+   *
+   * @param scheme  the scheme of the key
+   * @param encoded the X.509 encoding of the key
+   * @return the public key
+   * @throws GeneralSecurityException if the encoding is invalid
+   */
+  private PublicKey publicKey(SignatureScheme scheme, byte[] encoded)
+      throws GeneralSecurityException {
+    var id = ByteBuffer.wrap(encoded);
+    var key = keys.get(id);
+
+    if (key != null) {
+      return key;
+    }
+
+    var factories = keyFactories.get();
+    var factory = factories[scheme.ordinal()];
+
+    if (factory == null) {
+      factory = KeyFactory.getInstance(scheme.getKeyAlgorithm(), "BC");
+      factories[scheme.ordinal()] = factory;
+    }
+
+    key = factory.generatePublic(new X509EncodedKeySpec(encoded));
+
+    // A full cache stops growing rather than evicting, keeping lookups free of bookkeeping
+    if (keys.size() < keyCacheSize) {
+      keys.putIfAbsent(ByteBuffer.wrap(encoded.clone()), key);
+    }
+
+    return key;
+  }
+}
@@ -0,0 +1,103 @@
+package com.github.klaidoshka.signature;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+
+/**
+ * Signature schemes supported by the signer and the batch verifier.
+ */
+public enum SignatureScheme {
+
+  /**
+   * RSA-PSS with SHA-256 and MGF1, 2048-bit keys.
+   */
+  RSA_PSS("RSA", "SHA256withRSAandMGF1") {
+    @Override
+    void initialize(KeyPairGenerator generator) {
+      generator.initialize(2048);
+    }
+  },
+
+  /**
+   * ECDSA over NIST P-256 with SHA-256.
+   */
+  ECDSA_P256("EC", "SHA256withECDSA") {
+    @Override
+    void initialize(KeyPairGenerator generator) throws GeneralSecurityException {
+      generator.initialize(new ECGenParameterSpec("secp256r1"));
+    }
+  },
+
+  /**
+   * Ed25519 (pure EdDSA).
+   */
+  ED25519("Ed25519", "Ed25519") {
+    @Override
+    void initialize(KeyPairGenerator generator) {
+      // Ed25519 has a single parameter set
+    }
+  };
+
+  /**
+   * Algorithm of the keys.
+   */
+  private final String keyAlgorithm;
+
+  /**
+   * Algorithm of the signatures.
+   */
+  private final String signatureAlgorithm;
+
+  /**
+   * Create a scheme.
+   *
+   * @param keyAlgorithm       the algorithm of the keys
+   * @param signatureAlgorithm the algorithm of the signatures
+   */
+  SignatureScheme(String keyAlgorithm, String signatureAlgorithm) {
+    this.keyAlgorithm = keyAlgorithm;
+    this.signatureAlgorithm = signatureAlgorithm;
+  }
+
+  /**
+   * Get the algorithm of the keys.
+   *
+   * @return the key algorithm
+   */
+  public String getKeyAlgorithm() {
+    return keyAlgorithm;
+  }
+
+  /**
+   * Get the algorithm of the signatures.
+   *
+   * @return the signature algorithm
+   */
+  public String getSignatureAlgorithm() {
+    return signatureAlgorithm;
+  }
+
+  /**
+   * Generate a key pair of the scheme.
+   *
+   * @return the key pair
+   * @throws GeneralSecurityException if the key pair cannot be generated
+   */
+  public KeyPair generateKeyPair() throws GeneralSecurityException {
+    var generator = KeyPairGenerator.getInstance(keyAlgorithm, "BC");
+
+    initialize(generator);
+
+    return generator.generateKeyPair();
+  }
+
+  /**
+   * Initialize a key pair generator with the parameters of the scheme.
+   *
+   * @param generator the generator
+   * @throws GeneralSecurityException if the parameters are not supported
+   */
+  abstract void initialize(KeyPairGenerator generator) throws GeneralSecurityException;
+}
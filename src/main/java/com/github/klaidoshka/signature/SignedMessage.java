@@ -0,0 +1,18 @@
+package com.github.klaidoshka.signature;
+
+/**
+ * Message together with its signature and the encoded public key to verify it with.
+ *
+ * @param scheme    the signature scheme
+ * @param publicKey the X.509 encoded public key of the signer
+ * @param message   the signed message
+ * @param signature the signature
+ */
+public record SignedMessage(
+    SignatureScheme scheme,
+    byte[] publicKey,
+    byte[] message,
+    byte[] signature
+) {
+
+}
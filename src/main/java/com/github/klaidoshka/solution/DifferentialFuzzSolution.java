@@ -0,0 +1,114 @@
+package com.github.klaidoshka.solution;
+
+import static com.github.klaidoshka.util.StringUtil.toHex;
+
+import com.github.klaidoshka.fuzz.DifferentialFuzzer;
+import com.github.klaidoshka.fuzz.FuzzTarget;
+import com.github.klaidoshka.fuzz.Mismatch;
+import java.security.Provider;
+import java.time.Duration;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Solution for the differential fuzzing task.
+ *
+ * <li>
+ * Lists the providers of the digests, MACs and ciphers used by the other solutions, along with
+ * common counterparts implemented by more than one provider.
+ * </li>
+ * <li>
+ * Fuzzes every primitive implemented by at least two providers and reports the throughput.
+ * </li>
+ * <li>
+ * Reports inputs accepted by all providers with different outputs apart from inputs rejected by
+ * some providers only, and logs a minimized reproducer of every kind of mismatch found.
+ * </li>
+ */
+public final class DifferentialFuzzSolution implements Solution {
+
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER = Logger.getLogger(DifferentialFuzzSolution.class.getName());
+
+  /**
+   * Fuzzed targets.
+   */
+  private static final List<FuzzTarget> TARGETS = List.of(
+      FuzzTarget.digest("Tiger"),
+      FuzzTarget.digest("RipeMD160"),
+      FuzzTarget.digest("MD5"),
+      FuzzTarget.digest("SHA-1"),
+      FuzzTarget.digest("SHA-256"),
+      FuzzTarget.digest("SHA-512"),
+      FuzzTarget.digest("SHA3-256"),
+      FuzzTarget.mac("HmacSHA1", 6),
+      FuzzTarget.mac("HmacSHA384", 48),
+      FuzzTarget.cipher("xTEA/CBC/PKCS7Padding", 16, 8),
+      FuzzTarget.cipher("AES/ECB/NoPadding", 16, 0),
+      FuzzTarget.cipher("AES/ECB/PKCS5Padding", 16, 0),
+      FuzzTarget.cipher("AES/CBC/PKCS5Padding", 32, 16),
+      FuzzTarget.cipher("AES/CTR/NoPadding", 16, 16),
+      FuzzTarget.cipher("DESede/CBC/PKCS5Padding", 24, 8),
+      FuzzTarget.cipher("Blowfish/CBC/PKCS5Padding", 16, 8)
+  );
+
+  /**
+   * Largest generated message in bytes.
+   */
+  private static final int MAX_MESSAGE_LENGTH = 256;
+
+  /**
+   * Duration of the run.
+   */
+  private static final Duration DURATION = Duration.ofSeconds(10);
+
+  @Override
+  public void execute() throws Exception {
+    var threads = Runtime.getRuntime().availableProcessors();
+
+    for (var target : TARGETS) {
+      var providers = target.providers();
+
+      LOGGER.info(
+          "• %s: %s%s".formatted(
+              target.algorithm(),
+              providers.stream().map(Provider::getName).collect(Collectors.joining(", ")),
+              providers.size() < 2 ? " (skipped)" : ""
+          )
+      );
+    }
+
+    try (var fuzzer = new DifferentialFuzzer(threads, MAX_MESSAGE_LENGTH)) {
+      LOGGER.info("Fuzzing with %d threads for %d s...".formatted(threads, DURATION.toSeconds()));
+
+      var report = fuzzer.run(TARGETS, DURATION, 17);
+
+      LOGGER.info("• Cases: " + report.cases());
+      LOGGER.info("  Throughput: %.0f cases/min".formatted(report.casesPerMinute()));
+      LOGGER.info("  Output mismatches: " + report.outputMismatches());
+      LOGGER.info("  Rejection mismatches: " + report.rejectionMismatches());
+
+      for (var mismatch : report.reproducers()) {
+        var reproducer = mismatch.reproducer();
+
+        LOGGER.info(
+            "• Reproducer: %s (%s, %s)".formatted(
+                reproducer.target().algorithm(),
+                reproducer.decrypt() ? "decrypt" : "encrypt",
+                mismatch.kind() == Mismatch.Kind.OUTPUT ? "different outputs" : "rejected by some"
+            )
+        );
+        LOGGER.info("  Key: " + toHex(reproducer.key()));
+        LOGGER.info("  IV: " + toHex(reproducer.iv()));
+        LOGGER.info("  Message: " + toHex(reproducer.message()));
+
+        for (var outcome : mismatch.outcomes()) {
+          LOGGER.info("    • " + outcome);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.github.klaidoshka.solution;
+
+import com.github.klaidoshka.digest.DigestIndex;
+import com.github.klaidoshka.digest.DigestScanResult;
+import com.github.klaidoshka.digest.DigestScanner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Solution for the directory tree change detection task.
+ *
+ * <li>
+ * Generates a directory tree and hashes it into a persistent digest index.
+ * </li>
+ * <li>
+ * Re-scans the unchanged tree, which only compares file metadata against the index.
+ * </li>
+ * <li>
+ * Modifies a single file and re-scans the tree, which re-hashes that file only.
+ * </li>
+ * <li>
+ * Deletes a single file and re-scans the tree, which removes its record from the index.
+ * </li>
+ */
+public final class DigestIndexSolution implements Solution {
+
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER = Logger.getLogger(DigestIndexSolution.class.getName());
+
+  /**
+   * Method to use for hashing.
+   */
+  private static final String METHOD = "Tiger";
+
+  /**
+   * Number of directories in the generated tree.
+   */
+  private static final int DIRECTORIES = 64;
+
+  /**
+   * Number of files in each generated directory.
+   */
+  private static final int FILES_PER_DIRECTORY = 256;
+
+  @Override
+  public void execute() throws Exception {
+    var root = Files.createTempDirectory("digest-tree");
+    var indexFile = Files.createTempFile("digest", ".idx");
+    var text = new byte[1024];
+
+    try {
+      for (var i = 0; i < DIRECTORIES; i++) {
+        var directory = Files.createDirectories(root.resolve("d" + i / 8).resolve("d" + i));
+
+        for (var j = 0; j < FILES_PER_DIRECTORY; j++) {
+          text[0] = (byte) i;
+          text[1] = (byte) j;
+
+          Files.write(directory.resolve("f" + j), text);
+        }
+      }
+
+      try (var index = DigestIndex.open(indexFile, 1024)) {
+        var scanner = new DigestScanner(index, METHOD, Runtime.getRuntime().availableProcessors());
+
+        try {
+          LOGGER.info("• Method: " + METHOD);
+          LOGGER.info("• Tree: " + root);
+          LOGGER.info("Scanning new tree...");
+
+          log(scanner.scan(root));
+
+          LOGGER.info("Re-scanning unchanged tree...");
+
+          log(scanner.scan(root));
+
+          LOGGER.info("Modifying a single file and re-scanning...");
+
+          var modified = root.resolve("d0").resolve("d0").resolve("f0");
+
+          text[0] ^= 0x01;
+
+          Files.write(modified, text);
+
+          // Same size, so make sure the modification time differs even on coarse file systems
+          Files.setLastModifiedTime(
+              modified,
+              FileTime.fromMillis(System.currentTimeMillis() + 1000)
+          );
+
+          log(scanner.scan(root));
+
+          LOGGER.info("Deleting a single file and re-scanning...");
+
+          Files.delete(root.resolve("d0").resolve("d1").resolve("f0"));
+
+          log(scanner.scan(root));
+        } finally {
+          scanner.shutdown();
+        }
+
+        LOGGER.info("• Indexed files: " + index.size());
+      }
+    } finally {
+      try (Stream<Path> paths = Files.walk(root)) {
+        paths
+            .sorted(Comparator.reverseOrder())
+            .forEach(path -> path.toFile().delete());
+      }
+
+      Files.deleteIfExists(indexFile);
+    }
+  }
+
+  /**
+   * Log the statistics of a scan.
+   *
+   * @param result the statistics of the scan
+   */
+  private static void log(DigestScanResult result) {
+    LOGGER.info("• Files: " + result.files());
+    LOGGER.info("  Unchanged: " + result.unchanged());
+    LOGGER.info("  Hashed: " + result.hashed());
+    LOGGER.info("  Removed: " + result.removed());
+    LOGGER.info("  Failed: " + result.failed());
+    LOGGER.info(
+        "  Time: %d ms (%.0f files/s)".formatted(
+            result.elapsed().toMillis(),
+            result.filesPerSecond()
+        )
+    );
+  }
+}
@@ -0,0 +1,381 @@
+package com.github.klaidoshka.solution;
+
+import static com.github.klaidoshka.util.CipherUtil.toBytes;
+import static com.github.klaidoshka.util.StringUtil.toHex;
+
+import com.github.klaidoshka.hybrid.HybridEncryption;
+import com.github.klaidoshka.hybrid.HybridSession;
+import com.github.klaidoshka.hybrid.KeyEncapsulation;
+import com.github.klaidoshka.random.RandomService;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.logging.Logger;
+import javax.crypto.Cipher;
+
+/**
+ * Solution for the hybrid encryption task.
+ *
+ * <li>
+ * Opens a session with each key encapsulation mechanism and encrypts and decrypts a text.
+ * </li>
+ * <li>
+ * Compares the encryption throughput of pure RSA, a hybrid session per message and a reused hybrid
+ * session for messages from 32 B to 100 MiB, all encrypting with the public key.
+ * </li>
+ * <li>
+ * Compares the decryption throughput of the same paths with the private key, where pure RSA
+ * decrypts every chunk and a hybrid session per message unwraps its session key once.
+ * </li>
+ */
+public final class HybridEncryptionSolution implements Solution {
+
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER = Logger.getLogger(HybridEncryptionSolution.class.getName());
+
+  /**
+   * Transformation of the pure RSA path, as used by {@link AsymmetricSolution}.
+   */
+  private static final String RSA_TRANSFORMATION = "RSA/None/PKCS1Padding";
+
+  /**
+   * Size of the RSA keys in bits.
+   */
+  private static final int KEY_SIZE = 2048;
+
+  /**
+   * Largest chunk pure RSA can encrypt with PKCS1 padding.
+   */
+  private static final int RSA_CHUNK = KEY_SIZE / 8 - 11;
+
+  /**
+   * Largest message the pure RSA path encrypts; larger ones would take minutes.
+   */
+  private static final int RSA_LIMIT = 1 << 20;
+
+  /**
+   * Largest message the pure RSA path decrypts, as private-key operations are far slower.
+   */
+  private static final int RSA_DECRYPT_LIMIT = 64 * 1024;
+
+  /**
+   * Largest message encrypted and decrypted from memory; larger ones are streamed.
+   */
+  private static final int MEMORY_LIMIT = 1 << 20;
+
+  /**
+   * Message sizes to measure.
+   */
+  private static final int[] SIZES = {32, 1024, 64 * 1024, 1 << 20, 100 << 20};
+
+  /**
+   * Minimum duration of a single measurement.
+   */
+  private static final long DURATION_NANOS = 200_000_000L;
+
+  /**
+   * Minimum number of operations of a single measurement, for operations outlasting its duration.
+   */
+  private static final int MIN_OPERATIONS = 3;
+
+  /**
+   * Number of operations of every encryption and decryption path run on small messages before
+   * measuring, so that the JIT has compiled all of them before the first measurement.
+   */
+  private static final int WARMUP_OPERATIONS = 2000;
+
+  /**
+   * Size of the messages used for warming up.
+   */
+  private static final int WARMUP_SIZE = 4096;
+
+  /**
+   * Text to encrypt.
+   */
+  private static final byte[] TEXT = toBytes("0001020304050607 08090A0B0C0D0E0F");
+
+  @Override
+  public void execute() throws Exception {
+    var random = new RandomService(4096);
+    var rsa = generate("RSA", KEY_SIZE);
+    var x25519 = generate("X25519", 255);
+
+    for (var mechanism : KeyEncapsulation.values()) {
+      var keyPair = mechanism == KeyEncapsulation.RSA_OAEP ? rsa : x25519;
+      var hybrid = new HybridEncryption(mechanism, random);
+      var sender = hybrid.sender(keyPair.getPublic());
+      var receiver = hybrid.receiver(keyPair.getPrivate(), sender.encapsulation());
+      var encrypted = sender.encrypt(TEXT);
+
+      LOGGER.info("• Key encapsulation: " + mechanism);
+      LOGGER.info("  Encapsulation: " + toHex(sender.encapsulation()));
+      LOGGER.info("  Text: " + toHex(TEXT));
+      LOGGER.info("  Ciphertext: " + toHex(encrypted));
+      LOGGER.info("  Decrypted: " + toHex(receiver.decrypt(encrypted)));
+      LOGGER.info(
+          "  Session setup: %.0f ops/s".formatted(
+              measure(() -> hybrid.receiver(
+                  keyPair.getPrivate(),
+                  hybrid.sender(keyPair.getPublic()).encapsulation()
+              ))
+          )
+      );
+    }
+
+    var rsaCipher = Cipher.getInstance(RSA_TRANSFORMATION, "BC");
+    var rsaDecipher = Cipher.getInstance(RSA_TRANSFORMATION, "BC");
+    var hybrid = new HybridEncryption(KeyEncapsulation.RSA_OAEP, random);
+    var session = hybrid.sender(rsa.getPublic());
+    var receiver = hybrid.receiver(rsa.getPrivate(), session.encapsulation());
+
+    rsaCipher.init(Cipher.ENCRYPT_MODE, rsa.getPublic());
+    rsaDecipher.init(Cipher.DECRYPT_MODE, rsa.getPrivate());
+
+    var warmup = new byte[WARMUP_SIZE];
+    var warmupChunk = rsaCipher.doFinal(warmup, 0, RSA_CHUNK);
+    var warmupMessage = session.encrypt(warmup);
+    var warmupStream = seal(session, warmup, 4 * WARMUP_SIZE);
+
+    for (var i = 0; i < WARMUP_OPERATIONS; i++) {
+      rsaCipher.doFinal(warmup, 0, RSA_CHUNK);
+      encrypt(hybrid.sender(rsa.getPublic()), warmup, WARMUP_SIZE);
+      session.encrypt(warmup);
+      session.encrypt(
+          new RepeatingInputStream(warmup, 4 * WARMUP_SIZE),
+          OutputStream.nullOutputStream()
+      );
+      rsaDecipher.doFinal(warmupChunk);
+      hybrid.receiver(rsa.getPrivate(), session.encapsulation()).decrypt(warmupMessage);
+      receiver.decrypt(warmupMessage);
+      receiver.decrypt(new ByteArrayInputStream(warmupStream), OutputStream.nullOutputStream());
+    }
+
+    LOGGER.info("Measuring encryption throughput with the public key (ops/s)...");
+
+    for (var size : SIZES) {
+      var text = new byte[Math.min(size, MEMORY_LIMIT)];
+      var pure = size > RSA_LIMIT
+          ? "skipped"
+          : "%.1f".formatted(measure(() -> {
+            for (var offset = 0; offset < size; offset += RSA_CHUNK) {
+              rsaCipher.doFinal(text, offset, Math.min(RSA_CHUNK, size - offset));
+            }
+          }));
+      var perMessage = measure(() -> encrypt(hybrid.sender(rsa.getPublic()), text, size));
+      var reused = measure(() -> encrypt(session, text, size));
+
+      LOGGER.info(
+          "• Size: %d B, RSA: %s, hybrid (session per message): %.1f, hybrid (reused): %.1f"
+              .formatted(size, pure, perMessage, reused)
+      );
+    }
+
+    LOGGER.info("Measuring decryption throughput with the private key (ops/s)...");
+
+    for (var size : SIZES) {
+      var text = new byte[Math.min(size, MEMORY_LIMIT)];
+      var message = seal(session, text, size);
+      var pure = "skipped";
+
+      if (size <= RSA_DECRYPT_LIMIT) {
+        var chunks = new byte[(size + RSA_CHUNK - 1) / RSA_CHUNK][];
+
+        for (var i = 0; i < chunks.length; i++) {
+          var offset = i * RSA_CHUNK;
+
+          chunks[i] = rsaCipher.doFinal(text, offset, Math.min(RSA_CHUNK, size - offset));
+        }
+
+        pure = "%.1f".formatted(measure(() -> {
+          for (var chunk : chunks) {
+            rsaDecipher.doFinal(chunk);
+          }
+        }));
+      }
+
+      var perMessage = measure(() -> decrypt(
+          hybrid.receiver(rsa.getPrivate(), session.encapsulation()),
+          message,
+          size
+      ));
+      var reused = measure(() -> decrypt(receiver, message, size));
+
+      LOGGER.info(
+          "• Size: %d B, RSA: %s, hybrid (session per message): %.1f, hybrid (reused): %.1f"
+              .formatted(size, pure, perMessage, reused)
+      );
+    }
+  }
+
+  /**
+   * Encrypt a message from memory or, if it is too large, as a stream repeating the given text.
+   *
+   * @param session the session
+   * @param text    the text, repeated up to the size of the message
+   * @param size    the size of the message
+   * @throws Exception if the encryption fails
+   */
+  private static void encrypt(HybridSession session, byte[] text, int size) throws Exception {
+    if (size <= MEMORY_LIMIT) {
+      session.encrypt(text);
+
+      return;
+    }
+
+    session.encrypt(new RepeatingInputStream(text, size), OutputStream.nullOutputStream());
+  }
+
+  /**
+   * Encrypt a message the way {@link #encrypt(HybridSession, byte[], int)} does, keeping the
+   * result for the decryption measurements.
+   *
+   * @param session the session
+   * @param text    the text, repeated up to the size of the message
+   * @param size    the size of the message
+   * @return the nonce, ciphertext and tag
+   * @throws Exception if the encryption fails
+   */
+  private static byte[] seal(HybridSession session, byte[] text, int size) throws Exception {
+    if (size <= MEMORY_LIMIT) {
+      return session.encrypt(text);
+    }
+
+    var out = new ByteArrayOutputStream(size + WARMUP_SIZE);
+
+    session.encrypt(new RepeatingInputStream(text, size), out);
+
+    return out.toByteArray();
+  }
+
+  /**
+   * Decrypt a message from memory or, if it is too large, as a stream.
+   *
+   * @param session the session
+   * @param message the nonce, ciphertext and tag
+   * @param size    the size of the decrypted message
+   * @throws Exception if the decryption fails
+   */
+  private static void decrypt(HybridSession session, byte[] message, int size) throws Exception {
+    if (size <= MEMORY_LIMIT) {
+      session.decrypt(message);
+
+      return;
+    }
+
+    session.decrypt(new ByteArrayInputStream(message), OutputStream.nullOutputStream());
+  }
+
+  /**
+   * Generate a key pair.
+   *
+   * @param algorithm the key pair algorithm
+   * @param keySize   the size of the key in bits
+   * @return the key pair
+   * @throws Exception if the algorithm is not available
+   */
+  private static KeyPair generate(String algorithm, int keySize) throws Exception {
+    var generator = KeyPairGenerator.getInstance(algorithm, "BC");
+
+    generator.initialize(keySize);
+
+    return generator.generateKeyPair();
+  }
+
+  /**
+   * Run an operation repeatedly for at least the measurement duration and the minimum number of
+   * operations, after running it for the same duration to warm up its data. The code paths are
+   * already compiled by the warm-up on small messages.
+   *
+   * @param operation the operation
+   * @return the number of operations per second
+   * @throws Exception if the operation fails
+   */
+  private static double measure(Operation operation) throws Exception {
+    for (var start = System.nanoTime(); System.nanoTime() - start < DURATION_NANOS; ) {
+      operation.run();
+    }
+
+    var count = 0L;
+    var start = System.nanoTime();
+    var elapsed = 0L;
+
+    while (count < MIN_OPERATIONS || elapsed < DURATION_NANOS) {
+      operation.run();
+
+      count++;
+      elapsed = System.nanoTime() - start;
+    }
+
+    return count / (elapsed / 1e9);
+  }
+
+  /**
+   * Measured operation.
+   */
+  @FunctionalInterface
+  private interface Operation {
+
+    /**
+     * Run the operation once.
+     *
+     * @throws Exception if the operation fails
+     */
+    void run() throws Exception;
+  }
+
+  /**
+   * Stream repeating a text up to a given size, standing in for a large payload.
+   */
+  private static final class RepeatingInputStream extends InputStream {
+
+    /**
+     * Text to repeat.
+     */
+    private final byte[] text;
+
+    /**
+     * Number of bytes left to read.
+     */
+    private long remaining;
+
+    /**
+     * Create a stream.
+     *
+     * @param text the text to repeat
+     * @param size the total size of the stream
+     */
+    private RepeatingInputStream(byte[] text, long size) {
+      this.text = text;
+      this.remaining = size;
+    }
+
+    @Override
+    public int read() {
+      if (remaining == 0) {
+        return -1;
+      }
+
+      return text[(int) (--remaining % text.length)] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (remaining == 0) {
+        return -1;
+      }
+
+      var count = (int) Math.min(Math.min(length, remaining), text.length);
+
+      System.arraycopy(text, 0, bytes, offset, count);
+
+      remaining -= count;
+
+      return count;
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package com.github.klaidoshka.solution;
+
+import static com.github.klaidoshka.util.CipherUtil.toBytes;
+import static com.github.klaidoshka.util.StringUtil.toHex;
+
+import com.github.klaidoshka.key.KeyPairPool;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.crypto.Cipher;
+
+/**
+ * Solution for the key pair pre-generation task.
+ *
+ * <li>
+ * Generates a single production-size RSA key pair on the calling thread for reference.
+ * </li>
+ * <li>
+ * Waits for the background generators to fill the pool and measures the latency of taking key
+ * pairs from it.
+ * </li>
+ * <li>
+ * Encrypts and decrypts a text with a pooled key pair.
+ * </li>
+ */
+public final class KeyPairPoolSolution implements Solution {
+
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER = Logger.getLogger(KeyPairPoolSolution.class.getName());
+
+  /**
+   * Cipher algorithm.
+   */
+  private static final String CIPHER = "RSA";
+
+  /**
+   * Cipher transformation label.
+   */
+  private static final String CIPHER_TRANSFORMATION = "%s/%s/%s".formatted(
+      CIPHER,
+      "None",
+      "PKCS1Padding"
+  );
+
+  /**
+   * Size of the generated keys in bits.
+   */
+  private static final int KEY_SIZE = 2048;
+
+  /**
+   * Depth below which the generators resume.
+   */
+  private static final int LOW_WATERMARK = 4;
+
+  /**
+   * Depth at which the generators pause.
+   */
+  private static final int HIGH_WATERMARK = 16;
+
+  /**
+   * Text to encrypt.
+   */
+  private static final byte[] TEXT = toBytes("0001020304050607 08090A0B0C0D0E0F");
+
+  @Override
+  public void execute() throws Exception {
+    var threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    try (var pool = new KeyPairPool(CIPHER, KEY_SIZE, LOW_WATERMARK, HIGH_WATERMARK, threads)) {
+      LOGGER.info("• Algorithm: %s-%d".formatted(CIPHER, KEY_SIZE));
+      LOGGER.info("• Generator threads: " + threads);
+
+      var start = System.nanoTime();
+
+      // The pool was just created, so this falls back to generating on the calling thread
+      pool.take();
+
+      LOGGER.info(
+          "• Take from empty pool: %.2f ms".formatted((System.nanoTime() - start) / 1e6)
+      );
+      LOGGER.info("Waiting for the pool to fill...");
+
+      while (pool.metrics().depth() < HIGH_WATERMARK) {
+        TimeUnit.MILLISECONDS.sleep(50);
+      }
+
+      var takes = HIGH_WATERMARK - LOW_WATERMARK;
+
+      start = System.nanoTime();
+
+      for (var i = 0; i < takes; i++) {
+        pool.take();
+      }
+
+      LOGGER.info(
+          "• Take from filled pool: %.4f ms".formatted((System.nanoTime() - start) / 1e6 / takes)
+      );
+
+      var keyPair = pool.take();
+      var cipher = Cipher.getInstance(CIPHER_TRANSFORMATION, "BC");
+
+      cipher.init(Cipher.ENCRYPT_MODE, keyPair.getPublic());
+
+      var encrypted = cipher.doFinal(TEXT);
+
+      cipher.init(Cipher.DECRYPT_MODE, keyPair.getPrivate());
+
+      var decrypted = cipher.doFinal(encrypted);
+
+      LOGGER.info("• Transformation: " + CIPHER_TRANSFORMATION);
+      LOGGER.info("  Text: " + toHex(TEXT));
+      LOGGER.info("  Decrypted: " + toHex(decrypted));
+
+      var metrics = pool.metrics();
+
+      LOGGER.info("• Depth: " + metrics.depth());
+      LOGGER.info("  Generated: " + metrics.generated());
+      LOGGER.info("  Fallbacks: " + metrics.fallbacks());
+      LOGGER.info("  Generation time: %.2f ms".formatted(metrics.averageGenerationMillis()));
+      LOGGER.info("  Generation rate: %.2f key pairs/s".formatted(metrics.generationRate()));
+    }
+  }
+}
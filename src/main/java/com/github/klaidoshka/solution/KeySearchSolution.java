@@ -0,0 +1,205 @@
+package com.github.klaidoshka.solution;
+
+import static com.github.klaidoshka.util.CipherUtil.toBytes;
+import static com.github.klaidoshka.util.StringUtil.toHex;
+
+import com.github.klaidoshka.search.BlockCipherKeyTester;
+import com.github.klaidoshka.search.KeySearch;
+import com.github.klaidoshka.search.KeySpace;
+import com.github.klaidoshka.search.KeyTester;
+import com.github.klaidoshka.search.MacKeyTester;
+import java.util.logging.Logger;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.bouncycastle.crypto.digests.SHA1Digest;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.engines.XTEAEngine;
+
+/**
+ * Solution for the reduced keyspace search task.
+ *
+ * <li>
+ * Recovers the HMAC key of {@link HashMessageAuthCodeSolution} from a known text and MAC.
+ * </li>
+ * <li>
+ * Recovers the xTEA key of {@link SymmetricBlockDecryptSolution} and the AES key of
+ * {@link SymmetricBlockEncryptSolution} from a known plaintext and ciphertext block.
+ * </li>
+ * <li>
+ * Measures the search rate of each algorithm on a warmed-up full sweep without a match, and
+ * extrapolates from it how the cost doubles with every unknown key bit.
+ * </li>
+ * <li>
+ * Repeats each search with more unknown key bits.
+ * </li>
+ */
+public final class KeySearchSolution implements Solution {
+
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER = Logger.getLogger(KeySearchSolution.class.getName());
+
+  /**
+   * Numbers of unknown key bits to search.
+   */
+  private static final int[] UNKNOWN_BITS = {8, 12, 16, 20};
+
+  /**
+   * Number of unknown key bits of the sweep warming up the search.
+   */
+  private static final int WARMUP_BITS = 16;
+
+  /**
+   * Number of unknown key bits of the sweep measuring the search rate.
+   */
+  private static final int RATE_BITS = 20;
+
+  /**
+   * Method to be used for the MAC.
+   */
+  private static final String MAC_METHOD = "HmacSHA1";
+
+  /**
+   * Key of the MAC.
+   */
+  private static final byte[] MAC_KEY = toBytes("517233343536");
+
+  /**
+   * Text to authenticate.
+   */
+  private static final byte[] MAC_TEXT = toBytes("BABCE00000010203 040500");
+
+  /**
+   * Key of the xTEA cipher.
+   */
+  private static final byte[] XTEA_KEY = toBytes("6665566666655666 3331133333311333");
+
+  /**
+   * First ciphertext block of the xTEA cipher.
+   */
+  private static final byte[] XTEA_CIPHERTEXT = toBytes("6294DF99EB4F2429");
+
+  /**
+   * Key of the AES cipher.
+   */
+  private static final byte[] AES_KEY = toBytes("0001020304050607 08090A0B0C0D0E0F");
+
+  /**
+   * First plaintext block of the AES cipher.
+   */
+  private static final byte[] AES_PLAINTEXT = toBytes("719AEAA97C5A673B 5C4B61E822F5E5F5");
+
+  @Override
+  public void execute() throws Exception {
+    var mac = Mac.getInstance(MAC_METHOD, "BC");
+
+    mac.init(new SecretKeySpec(MAC_KEY, MAC_METHOD));
+
+    var xtea = Cipher.getInstance("xTEA/ECB/NoPadding");
+
+    // Decrypting the first CBC block in ECB mode yields the plaintext XOR-ed with the IV
+    xtea.init(Cipher.DECRYPT_MODE, new SecretKeySpec(XTEA_KEY, "xTEA"));
+
+    var aes = Cipher.getInstance("AES/ECB/NoPadding");
+
+    aes.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(AES_KEY, "AES"));
+
+    var threads = Runtime.getRuntime().availableProcessors();
+
+    try (var search = new KeySearch(threads)) {
+      LOGGER.info("• Threads: " + threads);
+
+      search(
+          search,
+          MAC_METHOD,
+          MAC_KEY,
+          new MacKeyTester(new SHA1Digest(), MAC_TEXT, mac.doFinal(MAC_TEXT))
+      );
+      search(
+          search,
+          "xTEA",
+          XTEA_KEY,
+          new BlockCipherKeyTester(
+              XTEAEngine::new,
+              XTEA_KEY.length,
+              xtea.doFinal(XTEA_CIPHERTEXT),
+              XTEA_CIPHERTEXT
+          )
+      );
+      search(
+          search,
+          "AES",
+          AES_KEY,
+          new BlockCipherKeyTester(
+              AESEngine::newInstance,
+              AES_KEY.length,
+              AES_PLAINTEXT,
+              aes.doFinal(AES_PLAINTEXT)
+          )
+      );
+    }
+  }
+
+  /**
+   * Search the key of an algorithm with an increasing number of unknown bits.
+   *
+   * @param search    the search engine
+   * @param algorithm the name of the algorithm
+   * @param key       the actual key
+   * @param tester    the tester of the algorithm
+   * @throws InterruptedException if interrupted while searching
+   */
+  private static void search(KeySearch search, String algorithm, byte[] key, KeyTester tester)
+      throws InterruptedException {
+    var rate = rate(search, key, tester);
+
+    LOGGER.info("• Algorithm: " + algorithm);
+    LOGGER.info("  Key: " + toHex(key));
+    LOGGER.info("  Rate: %.0f keys/s".formatted(rate));
+
+    for (var bits : UNKNOWN_BITS) {
+      var space = new KeySpace(key, bits);
+      var result = search.search(space, tester);
+
+      LOGGER.info(
+          "  Unknown bits: %d, tested: %d, time: %d ms, full keyspace: %.3f s".formatted(
+              bits,
+              result.tested(),
+              result.elapsed().toMillis(),
+              space.size() / rate
+          )
+      );
+      LOGGER.info("    • Key found: " + (result.found() ? toHex(result.key()) : "none"));
+    }
+  }
+
+  /**
+   * Measure the search rate of a tester on a full sweep without a match, after a smaller sweep
+   * warming up the workers and the JIT.
+   *
+   * @param search the search engine
+   * @param key    the actual key
+   * @param tester the tester of the algorithm
+   * @return the number of tested candidates per second
+   * @throws InterruptedException if interrupted while searching
+   */
+  private static double rate(KeySearch search, byte[] key, KeyTester tester)
+      throws InterruptedException {
+    var decoy = key.clone();
+
+    // Flipping a known bit leaves no matching candidate, so the search never stops early
+    decoy[0] ^= (byte) 0x80;
+
+    search.search(new KeySpace(decoy, WARMUP_BITS), tester);
+
+    var result = search.search(new KeySpace(decoy, RATE_BITS), tester);
+
+    if (result.found()) {
+      throw new IllegalStateException("Decoy keyspace holds a match");
+    }
+
+    return result.keysPerSecond();
+  }
+}
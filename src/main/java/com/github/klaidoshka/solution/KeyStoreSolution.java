@@ -0,0 +1,170 @@
+package com.github.klaidoshka.solution;
+
+import static com.github.klaidoshka.util.CipherUtil.toBytes;
+import static com.github.klaidoshka.util.StringUtil.toHex;
+
+import com.github.klaidoshka.key.KeyOperation;
+import com.github.klaidoshka.key.OffHeapKeyStore;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Solution for the off-heap key store task.
+ *
+ * <li>
+ * Stores a large number of keys off-heap and measures the latency of MAC operations looked up by
+ * key id, separately for keys with pooled contexts and for keys whose context is created cold,
+ * against a bare MAC operation.
+ * </li>
+ * <li>
+ * Encrypts a text with a stored key through a pooled cipher context.
+ * </li>
+ * <li>
+ * Evicts a key and shows that it can no longer be used.
+ * </li>
+ */
+public final class KeyStoreSolution implements Solution {
+
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER = Logger.getLogger(KeyStoreSolution.class.getName());
+
+  /**
+   * Method to be used for the MAC.
+   */
+  private static final String METHOD = "HmacSHA1";
+
+  /**
+   * Cipher transformation label.
+   */
+  private static final String CIPHER_TRANSFORMATION = "AES/ECB/NoPadding";
+
+  /**
+   * Cipher key.
+   */
+  private static final byte[] KEY = toBytes("0001020304050607 08090A0B0C0D0E0F");
+
+  /**
+   * Number of keys to store.
+   */
+  private static final int KEY_COUNT = 200_000;
+
+  /**
+   * Maximum number of keys holding pooled contexts.
+   */
+  private static final int POOLED_KEYS = 1024;
+
+  /**
+   * Number of measured lookups.
+   */
+  private static final int LOOKUPS = 1_000_000;
+
+  /**
+   * Text to authenticate and encrypt.
+   */
+  private static final byte[] TEXT = toBytes("719AEAA97C5A673B 5C4B61E822F5E5F5");
+
+  /**
+   * Operation authenticating the text.
+   */
+  private static final KeyOperation<Mac, byte[]> AUTHENTICATE = mac -> {
+    mac.update(TEXT);
+
+    return mac.doFinal();
+  };
+
+  @Override
+  public void execute() throws Exception {
+    try (var store = new OffHeapKeyStore(KEY_COUNT, 1, POOLED_KEYS)) {
+      var random = new SplittableRandom(17);
+      var key = new byte[16];
+      var ids = new String[KEY_COUNT];
+
+      for (var i = 0; i < KEY_COUNT; i++) {
+        random.nextBytes(key);
+
+        ids[i] = "key-" + i;
+
+        store.put(ids[i], key, METHOD);
+      }
+
+      Arrays.fill(key, (byte) 0);
+
+      LOGGER.info("• Keys: " + store.size());
+      LOGGER.info("  Keys with pooled contexts: " + POOLED_KEYS);
+      LOGGER.info("  Off-heap bytes: " + store.reservedBytes());
+      LOGGER.info("Measuring MAC lookups...");
+
+      var reference = Mac.getInstance(METHOD, "BC");
+
+      reference.init(new SecretKeySpec(KEY, METHOD));
+
+      // Each measurement runs twice, the first run lets the JIT compile it
+      for (var round = 0; round < 2; round++) {
+        var start = System.nanoTime();
+
+        for (var i = 0; i < LOOKUPS; i++) {
+          AUTHENTICATE.apply(reference);
+        }
+
+        var bare = (System.nanoTime() - start) / LOOKUPS;
+
+        // Keys of the hot set keep their pooled contexts, so this measures the lookup itself
+        start = System.nanoTime();
+
+        for (var i = 0; i < LOOKUPS; i++) {
+          store.withMac(ids[random.nextInt(POOLED_KEYS)], METHOD, AUTHENTICATE);
+        }
+
+        var pooled = (System.nanoTime() - start) / LOOKUPS;
+
+        // Keys outside the hot set mostly have no pooled context, so one is created and wiped
+        start = System.nanoTime();
+
+        for (var i = 0; i < LOOKUPS / 10; i++) {
+          store.withMac(
+              ids[POOLED_KEYS + random.nextInt(KEY_COUNT - POOLED_KEYS)],
+              METHOD,
+              AUTHENTICATE
+          );
+        }
+
+        var cold = (System.nanoTime() - start) / (LOOKUPS / 10);
+
+        LOGGER.info(
+            "• Round %d: bare MAC: %d ns/op, pooled lookup: %d ns/op, cold lookup: %d ns/op"
+                .formatted(round + 1, bare, pooled, cold)
+        );
+      }
+
+      store.put("aes", KEY, "AES");
+
+      var encrypted = store.withCipher(
+          "aes",
+          CIPHER_TRANSFORMATION,
+          Cipher.ENCRYPT_MODE,
+          null,
+          cipher -> cipher.doFinal(TEXT)
+      );
+
+      LOGGER.info("• Transformation: " + CIPHER_TRANSFORMATION);
+      LOGGER.info("  Key: " + toHex(KEY));
+      LOGGER.info("  Text: " + toHex(TEXT));
+      LOGGER.info("  Ciphertext: " + toHex(encrypted));
+      LOGGER.info("Evicting key and retrying...");
+
+      store.evict(ids[0]);
+
+      try {
+        store.withMac(ids[0], METHOD, mac -> mac.doFinal(TEXT));
+      } catch (Exception e) {
+        LOGGER.info("• MAC failed: " + e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,202 @@
+package com.github.klaidoshka.solution;
+
+import static com.github.klaidoshka.util.CipherUtil.toBytes;
+import static com.github.klaidoshka.util.StringUtil.toHex;
+
+import com.github.klaidoshka.oracle.PaddingOracle;
+import com.github.klaidoshka.oracle.PaddingOracleAttack;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Solution for the padding oracle attack task.
+ *
+ * <li>
+ * Recovers the plaintext of the xTEA ciphertext of {@link SymmetricBlockDecryptSolution} from a
+ * padding oracle alone.
+ * </li>
+ * <li>
+ * Recovers the plaintext of an AES ciphertext under the key of
+ * {@link SymmetricBlockEncryptSolution} the same way.
+ * </li>
+ * <li>
+ * Compares the oracle queries and wall time per block of both ciphers for a longer message.
+ * </li>
+ */
+public final class PaddingOracleSolution implements Solution {
+
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER = Logger.getLogger(PaddingOracleSolution.class.getName());
+
+  /**
+   * Key of the xTEA cipher.
+   */
+  private static final byte[] XTEA_KEY = toBytes("6665566666655666 3331133333311333");
+
+  /**
+   * Initialization vector of the xTEA cipher.
+   */
+  private static final byte[] XTEA_IV = toBytes("0706050403020100");
+
+  /**
+   * Ciphertext of the xTEA cipher.
+   */
+  private static final byte[] XTEA_CIPHERTEXT = toBytes(
+      "6294DF99EB4F2429 42FCCC8291FB9CC4 63788C13122A1D80"
+  );
+
+  /**
+   * Key of the AES cipher.
+   */
+  private static final byte[] AES_KEY = toBytes("0001020304050607 08090A0B0C0D0E0F");
+
+  /**
+   * Initialization vector of the AES cipher.
+   */
+  private static final byte[] AES_IV = toBytes("0F0E0D0C0B0A0908 0706050403020100");
+
+  /**
+   * Text encrypted with the AES cipher.
+   */
+  private static final byte[] AES_TEXT = toBytes(
+      "719AEAA97C5A673B 5C4B61E822F5E5F5 3280868F660CA282 2488E8BDCA6AC6EB"
+  );
+
+  /**
+   * Length of the longer message comparing the ciphers.
+   */
+  private static final int MESSAGE_LENGTH = 1024;
+
+  @Override
+  public void execute() throws Exception {
+    var threads = Runtime.getRuntime().availableProcessors();
+    var random = new SplittableRandom(17);
+    var message = new byte[MESSAGE_LENGTH];
+
+    random.nextBytes(message);
+
+    try (var attack = new PaddingOracleAttack(threads)) {
+      LOGGER.info("• Threads: " + threads);
+
+      var xtea = new PaddingOracle("xTEA/CBC/PKCS7Padding", "xTEA", XTEA_KEY);
+      var aes = new PaddingOracle("AES/CBC/PKCS7Padding", "AES", AES_KEY);
+
+      attack(attack, xtea, XTEA_IV, XTEA_CIPHERTEXT);
+      attack(
+          attack,
+          aes,
+          AES_IV,
+          encrypt("AES/CBC/PKCS7Padding", "AES", AES_KEY, AES_IV, AES_TEXT)
+      );
+
+      LOGGER.info("Comparing attack cost for a %d B message...".formatted(MESSAGE_LENGTH));
+
+      compare(
+          attack,
+          "xTEA",
+          xtea,
+          XTEA_IV,
+          encrypt("xTEA/CBC/PKCS7Padding", "xTEA", XTEA_KEY, XTEA_IV, message),
+          message
+      );
+      compare(
+          attack,
+          "AES",
+          aes,
+          AES_IV,
+          encrypt("AES/CBC/PKCS7Padding", "AES", AES_KEY, AES_IV, message),
+          message
+      );
+    }
+  }
+
+  /**
+   * Encrypt a text.
+   *
+   * @param transformation the cipher transformation
+   * @param algorithm      the cipher algorithm of the key
+   * @param key            the secret key
+   * @param iv             the initialization vector
+   * @param text           the text
+   * @return the ciphertext
+   * @throws Exception if the text cannot be encrypted
+   */
+  private static byte[] encrypt(String transformation, String algorithm, byte[] key, byte[] iv,
+      byte[] text) throws Exception {
+    var cipher = Cipher.getInstance(transformation);
+
+    cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, algorithm), new IvParameterSpec(iv));
+
+    return cipher.doFinal(text);
+  }
+
+  /**
+   * Attack a ciphertext and log every recovered block.
+   *
+   * @param attack     the attack engine
+   * @param oracle     the oracle
+   * @param iv         the initialization vector
+   * @param ciphertext the ciphertext
+   * @throws InterruptedException if interrupted while attacking
+   */
+  private static void attack(PaddingOracleAttack attack, PaddingOracle oracle, byte[] iv,
+      byte[] ciphertext) throws InterruptedException {
+    var result = attack.recover(oracle, iv, ciphertext);
+
+    LOGGER.info("• Block size: %d B".formatted(oracle.blockSize()));
+    LOGGER.info("  IV: " + toHex(iv));
+    LOGGER.info("  Ciphertext: " + toHex(ciphertext));
+
+    for (var block : result.blocks()) {
+      LOGGER.info(
+          "  Block %d: %s, queries: %d, time: %.2f ms".formatted(
+              block.index(),
+              toHex(block.plaintext()),
+              block.queries(),
+              block.elapsed().toNanos() / 1e6
+          )
+      );
+    }
+
+    LOGGER.info("    • Text: " + toHex(result.plaintext()));
+  }
+
+  /**
+   * Attack a longer ciphertext and log the average cost per block.
+   *
+   * @param attack     the attack engine
+   * @param algorithm  the name of the cipher
+   * @param oracle     the oracle
+   * @param iv         the initialization vector
+   * @param ciphertext the ciphertext
+   * @param text       the expected text
+   * @throws InterruptedException if interrupted while attacking
+   */
+  private static void compare(PaddingOracleAttack attack, String algorithm, PaddingOracle oracle,
+      byte[] iv, byte[] ciphertext, byte[] text) throws InterruptedException {
+    // The first run lets the JIT compile the attack
+    attack.recover(oracle, iv, ciphertext);
+
+    var result = attack.recover(oracle, iv, ciphertext);
+    var blocks = result.blocks().size();
+    var blockNanos = result.blocks().stream().mapToLong(block -> block.elapsed().toNanos()).sum();
+
+    LOGGER.info(
+        "• Algorithm: %s, blocks: %d, queries/block: %.1f, time/block: %.3f ms, total: %d ms"
+            .formatted(
+                algorithm,
+                blocks,
+                (double) result.queries() / blocks,
+                blockNanos / 1e6 / blocks,
+                result.elapsed().toMillis()
+            )
+    );
+    LOGGER.info("    • Text recovered: " + Arrays.equals(text, result.plaintext()));
+  }
+}
@@ -0,0 +1,136 @@
+package com.github.klaidoshka.solution;
+
+import static com.github.klaidoshka.util.StringUtil.toHex;
+
+import com.github.klaidoshka.random.NonceGenerator;
+import com.github.klaidoshka.random.RandomService;
+import java.security.SecureRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Solution for the randomness service task.
+ *
+ * <li>
+ * Generates a key, a CBC IV, GCM nonces and CTR IVs from the service.
+ * </li>
+ * <li>
+ * Compares the IV generation throughput of per-thread generators against a single shared
+ * generator for 1 to 64 threads.
+ * </li>
+ */
+public final class RandomServiceSolution implements Solution {
+
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER = Logger.getLogger(RandomServiceSolution.class.getName());
+
+  /**
+   * Number of bytes prefetched per thread.
+   */
+  private static final int BUFFER_SIZE = 4096;
+
+  /**
+   * Length of the generated IVs.
+   */
+  private static final int IV_LENGTH = 16;
+
+  /**
+   * Thread counts to measure.
+   */
+  private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+  /**
+   * Duration of a single measurement.
+   */
+  private static final long DURATION_MILLIS = 250;
+
+  @Override
+  public void execute() throws Exception {
+    var service = new RandomService(BUFFER_SIZE);
+    var gcm = service.nonceGenerator(NonceGenerator.Layout.GCM);
+    var ctr = service.nonceGenerator(NonceGenerator.Layout.CTR);
+
+    LOGGER.info("• Key: " + toHex(service.nextKey(32)));
+    LOGGER.info("• IV: " + toHex(service.nextIv(IV_LENGTH)));
+
+    for (var i = 0; i < 3; i++) {
+      LOGGER.info("• GCM nonce: " + toHex(gcm.next()));
+      LOGGER.info("  CTR IV: " + toHex(ctr.next()));
+    }
+
+    LOGGER.info("Measuring IV throughput (per-thread vs shared generator)...");
+
+    var shared = SecureRandom.getInstance("DRBG");
+
+    for (var threads : THREADS) {
+      var striped = measure(threads, service::nextBytes);
+      var contended = measure(threads, shared::nextBytes);
+
+      LOGGER.info(
+          "• Threads: %d, per-thread: %.2f M IV/s, shared: %.2f M IV/s".formatted(
+              threads,
+              striped / 1e6,
+              contended / 1e6
+          )
+      );
+    }
+  }
+
+  /**
+   * Measure how many IVs the given number of threads generate per second.
+   *
+   * @param threads   the number of threads
+   * @param generator the generator filling an IV
+   * @return the number of IVs per second
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  private static double measure(int threads, Consumer<byte[]> generator)
+      throws InterruptedException {
+    var running = new AtomicBoolean(true);
+    var start = new CountDownLatch(1);
+    var done = new CountDownLatch(threads);
+    var operations = new LongAdder();
+
+    for (var i = 0; i < threads; i++) {
+      var thread = new Thread(() -> {
+        var iv = new byte[IV_LENGTH];
+        var count = 0L;
+
+        try {
+          start.await();
+
+          while (running.get()) {
+            generator.accept(iv);
+
+            count++;
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          operations.add(count);
+          done.countDown();
+        }
+      });
+
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    var begin = System.nanoTime();
+
+    start.countDown();
+
+    TimeUnit.MILLISECONDS.sleep(DURATION_MILLIS);
+
+    running.set(false);
+    done.await();
+
+    return operations.sum() / ((System.nanoTime() - begin) / 1e9);
+  }
+}
@@ -0,0 +1,184 @@
+package com.github.klaidoshka.solution;
+
+import static com.github.klaidoshka.util.CipherUtil.toBytes;
+import static com.github.klaidoshka.util.StringUtil.toHex;
+
+import com.github.klaidoshka.signature.BatchVerifier;
+import com.github.klaidoshka.signature.SignatureScheme;
+import com.github.klaidoshka.signature.SignedMessage;
+import java.security.KeyPair;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+
+/**
+ * Solution for the signature task.
+ *
+ * <li>
+ * Signs a text with RSA-PSS, ECDSA P-256 and Ed25519 and verifies the signatures.
+ * </li>
+ * <li>
+ * Modifies the first bit of the text and re-verifies the signatures.
+ * </li>
+ * <li>
+ * Measures batch verification throughput of each scheme for an increasing number of threads.
+ * </li>
+ */
+public final class SignatureSolution implements Solution {
+
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER = Logger.getLogger(SignatureSolution.class.getName());
+
+  /**
+   * Text to sign.
+   */
+  private static final byte[] TEXT = toBytes("FACE000004050607 08090A0B0C0D00");
+
+  /**
+   * Number of messages in a measured batch.
+   */
+  private static final int BATCH_SIZE = 1024;
+
+  /**
+   * Number of distinct signers in a measured batch.
+   */
+  private static final int SIGNERS = 16;
+
+  /**
+   * Length of the messages in a measured batch.
+   */
+  private static final int MESSAGE_LENGTH = 64;
+
+  /**
+   * Minimum duration of a single measurement.
+   */
+  private static final long DURATION_NANOS = 500_000_000L;
+
+  @Override
+  public void execute() throws Exception {
+    var cores = Runtime.getRuntime().availableProcessors();
+
+    for (var scheme : SignatureScheme.values()) {
+      var keyPair = scheme.generateKeyPair();
+      var signature = sign(scheme, keyPair, TEXT);
+      var textModified = TEXT.clone();
+
+      textModified[0] ^= 0x01;
+
+      try (var verifier = new BatchVerifier(1, SIGNERS)) {
+        var results = verifier.verifyAll(List.of(
+            new SignedMessage(scheme, keyPair.getPublic().getEncoded(), TEXT, signature),
+            new SignedMessage(scheme, keyPair.getPublic().getEncoded(), textModified, signature)
+        ));
+
+        LOGGER.info("• Method: " + scheme.getSignatureAlgorithm());
+        LOGGER.info("  Text: " + toHex(TEXT));
+        LOGGER.info("  Signature: " + toHex(signature));
+        LOGGER.info("    • Signature is valid: " + results[0]);
+        LOGGER.info("  Text (Modified): " + toHex(textModified));
+        LOGGER.info("    • Signature is valid: " + results[1]);
+      }
+
+      var batch = batch(scheme);
+
+      // Doubling thread counts, always ending with all cores even if that is not a power of two
+      for (var threads = 1; ; threads = Math.min(threads << 1, cores)) {
+        try (var verifier = new BatchVerifier(threads, SIGNERS)) {
+          LOGGER.info(
+              "  Threads: %d, %.0f verify/s".formatted(threads, measure(verifier, batch))
+          );
+        }
+
+        if (threads == cores) {
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Sign a message.
+   *
+   * @param scheme  the signature scheme
+   * @param keyPair the key pair of the signer
+   * @param message the message
+   * @return the signature
+   * @throws Exception if the message cannot be signed
+   */
+  private static byte[] sign(SignatureScheme scheme, KeyPair keyPair, byte[] message)
+      throws Exception {
+    var signature = Signature.getInstance(scheme.getSignatureAlgorithm(), "BC");
+
+    signature.initSign(keyPair.getPrivate());
+    signature.update(message);
+
+    return signature.sign();
+  }
+
+  /**
+   * Create a batch of random messages signed by a few signers.
+   *
+   * @param scheme the signature scheme
+   * @return the batch
+   * @throws Exception if the messages cannot be signed
+   */
+  private static List<SignedMessage> batch(SignatureScheme scheme) throws Exception {
+    var random = new SplittableRandom(17);
+    var signers = new KeyPair[SIGNERS];
+    var batch = new ArrayList<SignedMessage>(BATCH_SIZE);
+
+    for (var i = 0; i < SIGNERS; i++) {
+      signers[i] = scheme.generateKeyPair();
+    }
+
+    for (var i = 0; i < BATCH_SIZE; i++) {
+      var signer = signers[i % SIGNERS];
+      var message = new byte[MESSAGE_LENGTH];
+
+      random.nextBytes(message);
+
+      batch.add(
+          new SignedMessage(
+              scheme,
+              signer.getPublic().getEncoded(),
+              message,
+              sign(scheme, signer, message)
+          )
+      );
+    }
+
+    return batch;
+  }
+
+  /**
+   * Verify a batch repeatedly for at least the measurement duration, after one warm-up batch.
+   *
+   * @param verifier the verifier
+   * @param batch    the batch
+   * @return the number of verified signatures per second
+   */
+  private static double measure(BatchVerifier verifier, List<SignedMessage> batch) {
+    verifier.verifyAll(batch);
+
+    var count = 0L;
+    var start = System.nanoTime();
+    var elapsed = 0L;
+
+    while (elapsed < DURATION_NANOS) {
+      for (var valid : verifier.verifyAll(batch)) {
+        if (!valid) {
+          throw new IllegalStateException("Valid signature failed verification");
+        }
+      }
+
+      count += batch.size();
+      elapsed = System.nanoTime() - start;
+    }
+
+    return count / (elapsed / 1e9);
+  }
+}
@@ -0,0 +1,315 @@
+package com.github.klaidoshka.solution;
+
+import static com.github.klaidoshka.util.CipherUtil.toBytes;
+import static java.security.MessageDigest.isEqual;
+
+import com.github.klaidoshka.timing.TimingHarness;
+import com.github.klaidoshka.timing.TimingResult;
+import com.github.klaidoshka.timing.TimingTarget;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.spec.RSAPrivateKeySpec;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Solution for the timing leak measurement task.
+ *
+ * <li>
+ * Tests the MAC comparison of {@link HashMessageAuthCodeSolution} ({@code MessageDigest.isEqual})
+ * against an early-exit {@code Arrays.equals} control.
+ * </li>
+ * <li>
+ * Tests the PKCS7 padding check of {@link SymmetricBlockDecryptSolution} and the PKCS1 padding
+ * check of {@link AsymmetricSolution} with valid versus random ciphertexts.
+ * </li>
+ */
+public final class TimingLeakSolution implements Solution {
+
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER = Logger.getLogger(TimingLeakSolution.class.getName());
+
+  /**
+   * MAC to compare against.
+   */
+  private static final byte[] MAC = toBytes("D634AE8023C5957E D5178A0DD37EAD81 A7A77B76");
+
+  /**
+   * Length of the values compared by the early-exit control.
+   */
+  private static final int CONTROL_LENGTH = 1024;
+
+  /**
+   * Key of the xTEA cipher.
+   */
+  private static final byte[] XTEA_KEY = toBytes("6665566666655666 3331133333311333");
+
+  /**
+   * Initialization vector of the xTEA cipher.
+   */
+  private static final byte[] XTEA_IV = toBytes("0706050403020100");
+
+  /**
+   * Ciphertext of the xTEA cipher with valid padding.
+   */
+  private static final byte[] XTEA_CIPHERTEXT = toBytes(
+      "6294DF99EB4F2429 42FCCC8291FB9CC4 63788C13122A1D80"
+  );
+
+  /**
+   * Modulus of the RSA key.
+   */
+  private static final BigInteger RSA_N = new BigInteger(
+      "00B3446AF443CD8413C155114359C501DF6616282F89F3B178CFB62B689E899E03",
+      16
+  );
+
+  /**
+   * Private exponent of the RSA key.
+   */
+  private static final BigInteger RSA_D = new BigInteger(
+      "3D4224F641712A300201CABB6422B1278E7008C9D6D3AFA63A67D919CED15719",
+      16
+  );
+
+  /**
+   * Ciphertext of the RSA cipher with valid padding.
+   */
+  private static final byte[] RSA_CIPHERTEXT = toBytes(
+      "1F0E15B0D491DB7B 6C8F66883E809CE1 7F8CC510C314E320 2D0811455E335DA7"
+  );
+
+  /**
+   * Number of measurements of the comparisons.
+   */
+  private static final long COMPARISON_MEASUREMENTS = 2_000_000;
+
+  /**
+   * Number of measurements of the padding checks.
+   */
+  private static final long PADDING_MEASUREMENTS = 500_000;
+
+  @Override
+  public void execute() throws Exception {
+    var threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    var harness = new TimingHarness(threads);
+
+    LOGGER.info("• Threads: " + threads);
+    LOGGER.info("• Threshold: |t| < " + TimingHarness.THRESHOLD);
+
+    log(harness.test("MessageDigest.isEqual (MAC)", Comparison::new, COMPARISON_MEASUREMENTS));
+    log(harness.test("Arrays.equals (control)", EarlyExitComparison::new, COMPARISON_MEASUREMENTS));
+    log(harness.test(
+        "xTEA/CBC/PKCS7Padding",
+        unchecked(PaddingCheck::forXtea),
+        PADDING_MEASUREMENTS
+    ));
+    log(harness.test(
+        "RSA/None/PKCS1Padding",
+        unchecked(PaddingCheck::forRsa),
+        PADDING_MEASUREMENTS
+    ));
+  }
+
+  /**
+   * Log the outcome of a test.
+   *
+   * @param result the outcome
+   */
+  private static void log(TimingResult result) {
+    LOGGER.info("• Operation: " + result.name());
+    LOGGER.info("  Samples (fixed): " + result.fixedSamples());
+    LOGGER.info("  Samples (random): " + result.randomSamples());
+    LOGGER.info("  Dropped: " + result.dropped());
+    LOGGER.info("  t: %.2f".formatted(result.t()));
+    LOGGER.info("    • " + (result.passed() ? "PASS" : "FAIL (timing difference detected)"));
+  }
+
+  /**
+   * Wrap a target creator throwing checked exceptions.
+   *
+   * @param creator the target creator
+   * @return the wrapped creator
+   */
+  private static Supplier<TimingTarget> unchecked(TargetCreator creator) {
+    return () -> {
+      try {
+        return creator.create();
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("Could not create timing target", e);
+      }
+    };
+  }
+
+  /**
+   * Creator of a target throwing checked exceptions.
+   */
+  @FunctionalInterface
+  private interface TargetCreator {
+
+    /**
+     * Create the target.
+     *
+     * @return the target
+     * @throws GeneralSecurityException if the target's primitives cannot be created
+     */
+    TimingTarget create() throws GeneralSecurityException;
+  }
+
+  /**
+   * Constant-time MAC comparison: the fixed class matches the MAC, the random class does not.
+   */
+  private static final class Comparison implements TimingTarget {
+
+    /**
+     * Sink of the results, keeping the comparisons from being optimized away.
+     */
+    private int sink;
+
+    @Override
+    public int inputLength() {
+      return MAC.length;
+    }
+
+    @Override
+    public void fixedInput(byte[] input) {
+      System.arraycopy(MAC, 0, input, 0, MAC.length);
+    }
+
+    @Override
+    public void run(byte[] input) {
+      sink += isEqual(MAC, input) ? 1 : 0;
+    }
+  }
+
+  /**
+   * Early-exit comparison, expected to fail the test.
+   */
+  private static final class EarlyExitComparison implements TimingTarget {
+
+    /**
+     * Value to compare against.
+     */
+    private final byte[] value = new byte[CONTROL_LENGTH];
+
+    /**
+     * Sink of the results, keeping the comparisons from being optimized away.
+     */
+    private int sink;
+
+    @Override
+    public int inputLength() {
+      return CONTROL_LENGTH;
+    }
+
+    @Override
+    public void fixedInput(byte[] input) {
+      System.arraycopy(value, 0, input, 0, CONTROL_LENGTH);
+    }
+
+    @Override
+    public void run(byte[] input) {
+      sink += Arrays.equals(value, input) ? 1 : 0;
+    }
+  }
+
+  /**
+   * Decryption with a padding check: the fixed class is a ciphertext with valid padding, the random
+   * class almost always has invalid padding.
+   */
+  private static final class PaddingCheck implements TimingTarget {
+
+    /**
+     * Cipher initialized for decryption.
+     */
+    private final Cipher cipher;
+
+    /**
+     * Ciphertext with valid padding.
+     */
+    private final byte[] ciphertext;
+
+    /**
+     * Mask of the first random byte, keeping random RSA ciphertexts below the modulus.
+     */
+    private final int firstByteMask;
+
+    /**
+     * Create a target.
+     *
+     * @param cipher        the cipher initialized for decryption
+     * @param ciphertext    the ciphertext with valid padding
+     * @param firstByteMask the mask of the first random byte
+     */
+    private PaddingCheck(Cipher cipher, byte[] ciphertext, int firstByteMask) {
+      this.cipher = cipher;
+      this.ciphertext = ciphertext;
+      this.firstByteMask = firstByteMask;
+    }
+
+    /**
+     * Create a target for the xTEA cipher.
+     *
+     * @return the target
+     * @throws GeneralSecurityException if the cipher cannot be created
+     */
+    private static PaddingCheck forXtea() throws GeneralSecurityException {
+      var cipher = Cipher.getInstance("xTEA/CBC/PKCS7Padding");
+
+      cipher.init(
+          Cipher.DECRYPT_MODE,
+          new SecretKeySpec(XTEA_KEY, "xTEA"),
+          new IvParameterSpec(XTEA_IV)
+      );
+
+      return new PaddingCheck(cipher, XTEA_CIPHERTEXT, 0xFF);
+    }
+
+    /**
+     * Create a target for the RSA cipher.
+     *
+     * @return the target
+     * @throws GeneralSecurityException if the cipher cannot be created
+     */
+    private static PaddingCheck forRsa() throws GeneralSecurityException {
+      var cipher = Cipher.getInstance("RSA/None/PKCS1Padding", "BC");
+      var key = KeyFactory
+          .getInstance("RSA", "BC")
+          .generatePrivate(new RSAPrivateKeySpec(RSA_N, RSA_D));
+
+      cipher.init(Cipher.DECRYPT_MODE, key);
+
+      return new PaddingCheck(cipher, RSA_CIPHERTEXT, 0x7F);
+    }
+
+    @Override
+    public int inputLength() {
+      return ciphertext.length;
+    }
+
+    @Override
+    public void fixedInput(byte[] input) {
+      System.arraycopy(ciphertext, 0, input, 0, ciphertext.length);
+    }
+
+    @Override
+    public void randomInput(byte[] input, SplittableRandom random) {
+      random.nextBytes(input);
+
+      input[0] &= (byte) firstByteMask;
+    }
+
+    @Override
+    public void run(byte[] input) throws Exception {
+      cipher.doFinal(input);
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.github.klaidoshka.timing;
+
+/**
+ * Running count, mean and variance of a sample stream (Welford's algorithm), kept without storing
+ * the samples.
+ */
+final class OnlineStatistics {
+
+  /**
+   * Number of samples.
+   */
+  private long count;
+
+  /**
+   * Mean of the samples.
+   */
+  private double mean;
+
+  /**
+   * Sum of squared differences from the mean.
+   */
+  private double m2;
+
+  /**
+   * Add a sample.
+   *
+   * @param value the sample
+   */
+  void add(double value) {
+    count++;
+
+    var delta = value - mean;
+
+    mean += delta / count;
+    m2 += delta * (value - mean);
+  }
+
+  /**
+   * Merge the samples of another accumulator into this one (Chan's parallel algorithm).
+   *
+   * @param other the other accumulator
+   */
+  void merge(OnlineStatistics other) {
+    if (other.count == 0) {
+      return;
+    }
+
+    var total = count + other.count;
+    var delta = other.mean - mean;
+
+    m2 += other.m2 + delta * delta * count * other.count / total;
+    mean += delta * other.count / total;
+    count = total;
+  }
+
+  /**
+   * Get the number of samples.
+   *
+   * @return the number of samples
+   */
+  long count() {
+    return count;
+  }
+
+  /**
+   * Get the mean of the samples.
+   *
+   * @return the mean
+   */
+  double mean() {
+    return mean;
+  }
+
+  /**
+   * Get the unbiased variance of the samples.
+   *
+   * @return the variance, or 0 if there are fewer than two samples
+   */
+  double variance() {
+    return count < 2 ? 0 : m2 / (count - 1);
+  }
+
+  /**
+   * Compute Welch's t statistic between two sample streams.
+   *
+   * @param a the first stream
+   * @param b the second stream
+   * @return the t statistic, or 0 if either stream has fewer than two samples
+   */
+  static double welchT(OnlineStatistics a, OnlineStatistics b) {
+    if (a.count < 2 || b.count < 2) {
+      return 0;
+    }
+
+    var error = Math.sqrt(a.variance() / a.count + b.variance() / b.count);
+
+    return error == 0 ? 0 : (a.mean - b.mean) / error;
+  }
+}
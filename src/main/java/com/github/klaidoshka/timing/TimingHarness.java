@@ -0,0 +1,248 @@
+package com.github.klaidoshka.timing;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Dudect-style harness detecting input-dependent running time.
+ *
+ * <li>
+ * Every measurement runs either the fixed-class or a random-class input, chosen at random, so that
+ * drifts of the machine affect both classes alike.
+ * </li>
+ * <li>
+ * Inputs are prepared a batch ahead, so that only the operation itself is timed.
+ * </li>
+ * <li>
+ * Each class is summarized by online accumulators, without storing samples, and the classes are
+ * compared with Welch's t-test.
+ * </li>
+ * <li>
+ * Measurements above a percentile estimated during warm-up are dropped, cutting off the heavy tail
+ * caused by interrupts and garbage collection.
+ * </li>
+ *
+ * <p>
+ * The JVM cannot pin threads to cores, so each worker runs on a dedicated thread of maximum
+ * priority instead; leave at least one core free for the rest of the system.
+ * </p>
+ */
+public final class TimingHarness {
+
+  /**
+   * Absolute t statistic above which a timing difference is reported, as used by dudect.
+   */
+  public static final double THRESHOLD = 4.5;
+
+  /**
+   * Number of inputs prepared ahead of their measurement.
+   */
+  private static final int BATCH_SIZE = 1024;
+
+  /**
+   * Number of warm-up measurements, also used to estimate the outlier cut-off.
+   */
+  private static final int WARMUP_SAMPLES = 64 * 1024;
+
+  /**
+   * Percentile of the warm-up measurements above which measurements are dropped.
+   */
+  private static final double CROP_PERCENTILE = 0.95;
+
+  /**
+   * Number of workers.
+   */
+  private final int threads;
+
+  /**
+   * Create a harness.
+   *
+   * @param threads the number of measuring workers
+   */
+  public TimingHarness(int threads) {
+    this.threads = threads;
+  }
+
+  /**
+   * Test an operation for a timing difference between its fixed and random input classes.
+   *
+   * @param name         the name of the operation
+   * @param targets      the creator of the operation, called once per worker
+   * @param measurements the total number of measurements, excluding warm-up
+   * @return the outcome of the test
+   * @throws InterruptedException if interrupted while waiting for the workers
+   */
+  public TimingResult test(String name, Supplier<TimingTarget> targets, long measurements)
+      throws InterruptedException {
+    var workers = new Worker[threads];
+    var runners = new Thread[threads];
+    var failure = new AtomicReference<Throwable>();
+
+    for (var i = 0; i < workers.length; i++) {
+      workers[i] = new Worker(targets, measurements / workers.length, i);
+      runners[i] = new Thread(workers[i], "timing-" + i);
+
+      runners[i].setPriority(Thread.MAX_PRIORITY);
+      runners[i].setUncaughtExceptionHandler((thread, e) -> failure.compareAndSet(null, e));
+      runners[i].start();
+    }
+
+    for (var runner : runners) {
+      runner.join();
+    }
+
+    if (failure.get() != null) {
+      throw new IllegalStateException("Timing worker failed", failure.get());
+    }
+
+    var fixed = new OnlineStatistics();
+    var random = new OnlineStatistics();
+    var dropped = 0L;
+
+    for (var worker : workers) {
+      fixed.merge(worker.fixed);
+      random.merge(worker.random);
+
+      dropped += worker.dropped;
+    }
+
+    var t = OnlineStatistics.welchT(fixed, random);
+
+    return new TimingResult(
+        name,
+        fixed.count(),
+        random.count(),
+        dropped,
+        t,
+        Math.abs(t) < THRESHOLD
+    );
+  }
+
+  /**
+   * Worker measuring its share of the operation runs.
+   */
+  private static final class Worker implements Runnable {
+
+    /**
+     * Creator of the operation.
+     */
+    private final Supplier<TimingTarget> targets;
+
+    /**
+     * Number of measurements of this worker.
+     */
+    private final long measurements;
+
+    /**
+     * Seed of the class and input choices.
+     */
+    private final long seed;
+
+    /**
+     * Statistics of the fixed class.
+     */
+    private final OnlineStatistics fixed = new OnlineStatistics();
+
+    /**
+     * Statistics of the random class.
+     */
+    private final OnlineStatistics random = new OnlineStatistics();
+
+    /**
+     * Number of dropped measurements.
+     */
+    private long dropped;
+
+    /**
+     * Create a worker.
+     *
+     * @param targets      the creator of the operation
+     * @param measurements the number of measurements of this worker
+     * @param seed         the seed of the class and input choices
+     */
+    private Worker(Supplier<TimingTarget> targets, long measurements, long seed) {
+      this.targets = targets;
+      this.measurements = measurements;
+      this.seed = seed;
+    }
+
+    @Override
+    public void run() {
+      var target = targets.get();
+      var generator = new SplittableRandom(seed);
+      var inputs = new byte[BATCH_SIZE][target.inputLength()];
+      var classes = new boolean[BATCH_SIZE];
+      var warmup = new long[WARMUP_SAMPLES];
+
+      for (var done = 0; done < WARMUP_SAMPLES; done += BATCH_SIZE) {
+        prepare(target, generator, inputs, classes);
+
+        for (var i = 0; i < BATCH_SIZE; i++) {
+          warmup[done + i] = measure(target, inputs[i]);
+        }
+      }
+
+      Arrays.sort(warmup);
+
+      var cutoff = warmup[(int) (WARMUP_SAMPLES * CROP_PERCENTILE)];
+
+      for (var done = 0L; done < measurements; done += BATCH_SIZE) {
+        prepare(target, generator, inputs, classes);
+
+        for (var i = 0; i < BATCH_SIZE; i++) {
+          var elapsed = measure(target, inputs[i]);
+
+          if (elapsed > cutoff) {
+            dropped++;
+          } else if (classes[i]) {
+            fixed.add(elapsed);
+          } else {
+            random.add(elapsed);
+          }
+        }
+      }
+    }
+
+    /**
+     * Choose the classes of the next batch and write their inputs.
+     *
+     * @param target    the operation
+     * @param generator the source of randomness
+     * @param inputs    the inputs of the batch
+     * @param classes   the classes of the batch, true for the fixed class
+     */
+    private static void prepare(TimingTarget target, SplittableRandom generator, byte[][] inputs,
+        boolean[] classes) {
+      for (var i = 0; i < BATCH_SIZE; i++) {
+        classes[i] = generator.nextBoolean();
+
+        if (classes[i]) {
+          target.fixedInput(inputs[i]);
+        } else {
+          target.randomInput(inputs[i], generator);
+        }
+      }
+    }
+
+    /**
+     * Time a single run of the operation.
+     *
+     * @param target the operation
+     * @param input  the input
+     * @return the running time in nanoseconds
+     */
+    private static long measure(TimingTarget target, byte[] input) {
+      var start = System.nanoTime();
+
+      try {
+        target.run(input);
+      } catch (Exception ignored) {
+        // Failure paths are measured like successful ones
+      }
+
+      return System.nanoTime() - start;
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.github.klaidoshka.timing;
+
+/**
+ * Outcome of a timing leak test.
+ *
+ * @param name          the name of the tested operation
+ * @param fixedSamples  the number of fixed-class measurements
+ * @param randomSamples the number of random-class measurements
+ * @param dropped       the number of measurements dropped as outliers
+ * @param t             Welch's t statistic between the classes
+ * @param passed        true if no timing difference was detected, false otherwise
+ */
+public record TimingResult(
+    String name,
+    long fixedSamples,
+    long randomSamples,
+    long dropped,
+    double t,
+    boolean passed
+) {
+
+}
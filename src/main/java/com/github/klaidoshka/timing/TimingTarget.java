@@ -0,0 +1,43 @@
+package com.github.klaidoshka.timing;
+
+import java.util.SplittableRandom;
+
+/**
+ * Operation whose running time is tested for dependence on its input. Instances are used by a
+ * single worker thread each.
+ */
+public interface TimingTarget {
+
+  /**
+   * Get the length of the inputs.
+   *
+   * @return the length in bytes
+   */
+  int inputLength();
+
+  /**
+   * Write the fixed-class input.
+   *
+   * @param input the array to write into
+   */
+  void fixedInput(byte[] input);
+
+  /**
+   * Write a random-class input.
+   *
+   * @param input  the array to write into
+   * @param random the source of randomness
+   */
+  default void randomInput(byte[] input, SplittableRandom random) {
+    random.nextBytes(input);
+  }
+
+  /**
+   * Run the measured operation. Exceptions are part of the measured path, e.g. padding failures,
+   * and are ignored by the harness.
+   *
+   * @param input the input
+   * @throws Exception if the operation fails
+   */
+  void run(byte[] input) throws Exception;
+}